@@ -0,0 +1,14 @@
+-- GET /items/{id} for a random item and user, so the run is not served from one hot cache entry.
+--   wrk ... -s benchmark/random-items.lua http://localhost:8080 -- <users> <items>
+local users, items
+
+function init(args)
+    users = tonumber(args[1])
+    items = tonumber(args[2])
+    math.randomseed(os.time() + math.floor(os.clock() * 1000000))
+end
+
+function request()
+    local headers = { ["X-Sharer-User-Id"] = tostring(math.random(users)) }
+    return wrk.format("GET", "/items/" .. math.random(items), headers)
+end
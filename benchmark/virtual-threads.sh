@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# Compares the gateway and server on Java 11 platform threads with Java 21 virtual threads.
+#
+# Requires wrk, curl, JAVA11_HOME and JAVA21_HOME. The server runs with the ci profile (in-memory H2),
+# so the numbers show the request handling cost of the threading model, not Postgres. Requests are
+# spread over USERS users and ITEMS items, and the caches that would otherwise answer most of them
+# (gateway request coalescing and ETag response cache, server item cache) are switched off.
+#
+#   JAVA11_HOME=... JAVA21_HOME=... [USERS=100] [ITEMS=1000] benchmark/virtual-threads.sh [connections] [duration]
+set -euo pipefail
+
+CONNECTIONS=${1:-5000}
+DURATION=${2:-60s}
+THREADS=${WRK_THREADS:-8}
+USERS=${USERS:-100}
+ITEMS=${ITEMS:-1000}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+
+: "${JAVA11_HOME:?JAVA11_HOME is not set}"
+: "${JAVA21_HOME:?JAVA21_HOME is not set}"
+
+ulimit -n 65536
+
+PIDS=()
+cleanup() {
+    for pid in "${PIDS[@]}"; do
+        kill "$pid" 2>/dev/null || true
+    done
+    PIDS=()
+}
+trap cleanup EXIT
+
+wait_for() {
+    for _ in $(seq 60); do
+        curl -s -o /dev/null "$1" && return 0
+        sleep 1
+    done
+    echo "$1 did not start" >&2
+    exit 1
+}
+
+run() {
+    local name=$1 java_home=$2 virtual=$3
+
+    SHAREIT_VIRTUAL_THREADS=$virtual "$java_home/bin/java" -jar "$ROOT"/server/target/shareit-server-*.jar \
+        --spring.profiles.active=ci --shareit.item-cache.maximum-size=0 > "/tmp/shareit-server-$name.log" 2>&1 &
+    PIDS+=($!)
+    SHAREIT_VIRTUAL_THREADS=$virtual "$java_home/bin/java" -jar "$ROOT"/gateway/target/shareit-gateway-*.jar \
+        --logging.level.org.springframework.web.client.RestTemplate=INFO \
+        --shareit.rate-limit.enabled=false --shareit.load-shedding.enabled=false \
+        --shareit-server.coalescing.enabled=false --shareit-server.response-cache.enabled=false \
+        > "/tmp/shareit-gateway-$name.log" 2>&1 &
+    PIDS+=($!)
+    wait_for http://localhost:9090/users
+    wait_for http://localhost:8080/users
+
+    for user in $(seq "$USERS"); do
+        curl -s -o /dev/null -H 'Content-Type: application/json' \
+            -d "{\"name\":\"user$user\",\"email\":\"user$user@mail.ru\"}" http://localhost:8080/users
+    done
+    for item in $(seq "$ITEMS"); do
+        curl -s -o /dev/null -H 'Content-Type: application/json' -H "X-Sharer-User-Id: $(( (item - 1) % USERS + 1 ))" \
+            -d "{\"name\":\"item$item\",\"description\":\"item $item\",\"available\":true}" http://localhost:8080/items
+    done
+
+    # warm up the JIT before measuring
+    wrk -t"$THREADS" -c100 -d15s -s "$ROOT"/benchmark/random-items.lua http://localhost:8080 -- "$USERS" "$ITEMS" > /dev/null
+
+    echo "== $name: $CONNECTIONS connections, $DURATION"
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -s "$ROOT"/benchmark/random-items.lua \
+        http://localhost:8080 -- "$USERS" "$ITEMS" \
+        | grep -E 'Requests/sec|Socket errors|Non-2xx|^ +(50|99)%'
+
+    cleanup
+    sleep 2
+}
+
+(cd "$ROOT" && JAVA_HOME=$JAVA11_HOME mvn -B -q package -DskipTests)
+
+run java11-platform "$JAVA11_HOME" false
+run java21-platform "$JAVA21_HOME" false
+run java21-virtual "$JAVA21_HOME" true
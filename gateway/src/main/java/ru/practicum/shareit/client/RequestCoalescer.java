@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for server GETs: while a request is in flight, identical ones (same URI with its
+ * parameters and same headers, which carry the user id) join it instead of going upstream, and all
+ * of them receive the one response. The {@code gateway.coalescing} counter with {@code role=upstream}
+ * and {@code role=joined} gives the collapse ratio.
+ */
+@Component
+public class RequestCoalescer {
+    private final boolean enabled;
+    private final ConcurrentMap<Key, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstream;
+    private final Counter joined;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${shareit-server.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.upstream = meterRegistry.counter("gateway.coalescing", "role", "upstream");
+        this.joined = meterRegistry.counter("gateway.coalescing", "role", "joined");
+    }
+
+    public Mono<ResponseEntity<Object>> coalesce(URI uri, HttpHeaders headers, Supplier<Mono<ResponseEntity<Object>>> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        return Mono.defer(() -> {
+            Key key = new Key(uri, HttpHeaders.readOnlyHttpHeaders(headers));
+            Mono<ResponseEntity<Object>> existing = inFlight.get(key);
+            if (existing != null) {
+                joined.increment();
+                return existing;
+            }
+
+            Mono<ResponseEntity<Object>> shared = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache();
+            existing = inFlight.putIfAbsent(key, shared);
+            if (existing != null) {
+                joined.increment();
+                return existing;
+            }
+
+            upstream.increment();
+            return shared;
+        });
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final URI uri;
+        private final HttpHeaders headers;
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Server responses with an ETag, keyed by URI and {@code X-Sharer-User-Id} since the server answers
+ * differently per user. Entries are revalidated with {@code If-None-Match} on every read unless
+ * {@code shareit-server.response-cache.fresh-for} lets them be served without asking the server.
+ * With {@code shareit-server.response-cache.enabled=false} nothing is stored and every GET goes upstream.
+ */
+@Component
+public class ResponseCache {
+    private final boolean enabled;
+    private final Cache<Key, Entry> cache;
+    private final long freshForNanos;
+
+    public ResponseCache(MeterRegistry meterRegistry,
+                         @Value("${shareit-server.response-cache.enabled:true}") boolean enabled,
+                         @Value("${shareit-server.response-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit-server.response-cache.fresh-for:PT0S}") Duration freshFor) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.freshForNanos = freshFor.toNanos();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-responses");
+    }
+
+    @Nullable
+    public Entry get(URI uri, Long userId) {
+        if (!enabled) {
+            return null;
+        }
+
+        return cache.getIfPresent(new Key(uri, userId));
+    }
+
+    /**
+     * Stores a successful response if the server tagged it, otherwise drops whatever was cached for the key.
+     */
+    public ResponseEntity<Object> store(URI uri, Long userId, ResponseEntity<Object> response, @Nullable String ifNoneMatch) {
+        if (!enabled) {
+            return response;
+        }
+
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode() != HttpStatus.OK || etag == null || !(response.getBody() instanceof byte[])) {
+            cache.invalidate(new Key(uri, userId));
+            return response;
+        }
+
+        Entry entry = new Entry(etag, response.getHeaders(), (byte[]) response.getBody(), System.nanoTime());
+        cache.put(new Key(uri, userId), entry);
+        return entry.toResponse(ifNoneMatch);
+    }
+
+    /**
+     * The server confirmed the cached entry with 304, so it is fresh again.
+     */
+    public ResponseEntity<Object> revalidated(URI uri, Long userId, Entry entry, @Nullable String ifNoneMatch) {
+        Entry renewed = new Entry(entry.etag, entry.headers, entry.body, System.nanoTime());
+        cache.put(new Key(uri, userId), renewed);
+        return renewed.toResponse(ifNoneMatch);
+    }
+
+    public boolean isFresh(Entry entry) {
+        return System.nanoTime() - entry.storedAt < freshForNanos;
+    }
+
+    public static final class Entry {
+        private final String etag;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long storedAt;
+
+        private Entry(String etag, HttpHeaders headers, byte[] body, long storedAt) {
+            this.etag = etag;
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+            this.body = body;
+            this.storedAt = storedAt;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * 304 without a body when the caller already holds this version, the cached response otherwise.
+         */
+        public ResponseEntity<Object> toResponse(@Nullable String ifNoneMatch) {
+            if (matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+
+        /**
+         * Weak comparison as required for {@code If-None-Match}: a {@code W/} prefix on either side is ignored.
+         */
+        private boolean matches(@Nullable String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+
+            String tag = stripWeak(etag);
+            for (String candidate : ifNoneMatch.split(",")) {
+                String trimmed = candidate.trim();
+                if (trimmed.equals("*") || stripWeak(trimmed).equals(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String stripWeak(String etag) {
+            return etag.startsWith("W/") ? etag.substring(2) : etag;
+        }
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final URI uri;
+        private final Long userId;
+    }
+}
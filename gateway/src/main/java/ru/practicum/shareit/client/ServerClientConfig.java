@@ -0,0 +1,120 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateBuilderConfigurer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.throttling.LoadShedder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One connection pool for all gateway-to-server traffic, shared by every {@link BaseClient}.
+ * The blocking path uses a pooled Apache HttpClient, the reactive path a Reactor Netty
+ * {@link ConnectionProvider} with the same limits and timeouts. Both pools publish their
+ * saturation to the metrics endpoint.
+ */
+@Configuration
+public class ServerClientConfig {
+    private static final String POOL_NAME = "shareit-server";
+
+    private final int maxConnections;
+    private final int maxConnectionsPerRoute;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration acquireTimeout;
+    private final Duration idleTimeout;
+    private final DataSize maxInMemorySize;
+
+    public ServerClientConfig(@Value("${shareit-server.pool.max-connections:200}") int maxConnections,
+                              @Value("${shareit-server.pool.max-connections-per-route:200}") int maxConnectionsPerRoute,
+                              @Value("${shareit-server.pool.connect-timeout:PT2S}") Duration connectTimeout,
+                              @Value("${shareit-server.pool.read-timeout:PT30S}") Duration readTimeout,
+                              @Value("${shareit-server.pool.acquire-timeout:PT5S}") Duration acquireTimeout,
+                              @Value("${shareit-server.pool.idle-timeout:PT15S}") Duration idleTimeout,
+                              @Value("${shareit-server.max-in-memory-size:4MB}") DataSize maxInMemorySize) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.acquireTimeout = acquireTimeout;
+        this.idleTimeout = idleTimeout;
+        this.maxInMemorySize = maxInMemorySize;
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(MeterRegistry registry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(registry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .setSocketTimeout((int) readTimeout.toMillis())
+                        .setConnectionRequestTimeout((int) acquireTimeout.toMillis())
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Replaces the auto-configured builder so every client's {@code RestTemplate} shares the pooled request factory.
+     */
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(RestTemplateBuilderConfigurer configurer,
+                                                   CloseableHttpClient serverHttpClient,
+                                                   LoadShedder loadShedder) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+        return configurer.configure(new RestTemplateBuilder())
+                .requestFactory(() -> requestFactory)
+                .additionalInterceptors(loadShedder);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider() {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(acquireTimeout)
+                .maxIdleTime(idleTimeout)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer serverConnectorCustomizer(ConnectionProvider serverConnectionProvider,
+                                                         LoadShedder loadShedder) {
+        HttpClient httpClient = HttpClient.create(serverConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        // bodies are buffered whole, so the limit is raised from WebClient's 256 KB to fit large pages but stays bounded
+        return builder -> builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .filter(loadShedder.exchangeFilter());
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception;
+
+public class OverloadedException extends RuntimeException {
+    public OverloadedException() {
+        super("Сервис перегружен, повторите позже");
+    }
+}
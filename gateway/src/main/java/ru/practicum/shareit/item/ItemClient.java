@@ -3,10 +3,14 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -16,19 +20,26 @@ import java.util.Map;
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      WebClient.Builder webClientBuilder, @Value("${shareit-server.reactive:false}") boolean reactive,
+                      ResponseCache responseCache, RequestCoalescer requestCoalescer) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                reactive,
+                responseCache,
+                requestCoalescer
         );
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long itemId, @Nullable String ifNoneMatch) {
+        return getCached("/" + itemId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> getByOwner(long userId, long from, long size) {
+    public Mono<ResponseEntity<Object>> getByOwner(long userId, long from, long size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -36,7 +47,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> search(long userId, String text, long from, long size) {
+    public Mono<ResponseEntity<Object>> search(long userId, String text, long from, long size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
@@ -45,19 +56,19 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> create(long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> update(long userId, ItemDto itemDto, long itemId) {
+    public Mono<ResponseEntity<Object>> update(long userId, ItemDto itemDto, long itemId) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> delete(long itemId) {
+    public Mono<ResponseEntity<Object>> delete(long itemId) {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> comment(long userId, long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> comment(long userId, long itemId, CommentDto commentDto) {
         return post("/" + itemId + "/comment", userId, commentDto);
     }
 }
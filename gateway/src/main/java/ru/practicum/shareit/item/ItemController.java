@@ -2,9 +2,11 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Marker;
@@ -23,15 +25,16 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(
+    public Mono<ResponseEntity<Object>> getById(
             @RequestHeader(USER_ID_HEADER) Integer userId,
-            @PathVariable Integer itemId) {
+            @PathVariable Integer itemId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get item {}, userId={}", itemId, userId);
-        return itemClient.getById(userId, itemId);
+        return itemClient.getById(userId, itemId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getByOwner(
+    public Mono<ResponseEntity<Object>> getByOwner(
             @RequestHeader(USER_ID_HEADER) Integer userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
@@ -40,7 +43,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(
+    public Mono<ResponseEntity<Object>> search(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam("text") String text,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
@@ -50,7 +53,7 @@ public class ItemController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public Mono<ResponseEntity<Object>> create(
             @RequestHeader(USER_ID_HEADER) Integer userId,
             @Validated(Marker.OnCreate.class) @RequestBody ItemDto itemDto) {
         log.info("Creating item {}, userId={}", itemDto, userId);
@@ -58,7 +61,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(
+    public Mono<ResponseEntity<Object>> update(
             @RequestHeader(USER_ID_HEADER) Integer userId,
             @Validated(Marker.OnUpdate.class) @RequestBody ItemDto itemDto,
             @PathVariable Integer itemId) {
@@ -67,13 +70,13 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> delete(@PathVariable Integer itemId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable Integer itemId) {
         log.info("Delete item with id {}", itemId);
         return itemClient.delete(itemId);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> comment(
+    public Mono<ResponseEntity<Object>> comment(
             @RequestHeader(USER_ID_HEADER) Integer userId,
             @PathVariable Integer itemId,
             @RequestBody CommentDto comment) {
@@ -3,10 +3,14 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.request.dto.RequestDto;
 
 import java.util.Map;
@@ -15,23 +19,30 @@ import java.util.Map;
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         WebClient.Builder webClientBuilder, @Value("${shareit-server.reactive:false}") boolean reactive,
+                         ResponseCache responseCache, RequestCoalescer requestCoalescer) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .build(),
+                webClientBuilder
+                        .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .build(),
+                reactive,
+                responseCache,
+                requestCoalescer
         );
     }
 
-    public ResponseEntity<Object> create(long userId, RequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> create(long userId, RequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getRequestsOwner(long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsOwner(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAll(long userId, long from, long size) {
+    public Mono<ResponseEntity<Object>> getAll(long userId, long from, long size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -39,7 +50,7 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long requestId, @Nullable String ifNoneMatch) {
+        return getCached("/" + requestId, userId, ifNoneMatch);
     }
 }
@@ -2,9 +2,11 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.validation.Marker;
 
@@ -23,7 +25,7 @@ public class RequestController {
 
 
     @PostMapping
-    public ResponseEntity<Object> create(
+    public Mono<ResponseEntity<Object>> create(
             @RequestHeader(USER_ID_HEADER) Integer userId,
             @Validated(Marker.OnCreate.class) @RequestBody RequestDto requestDto) {
         log.info("Add request {} with userId={}", requestDto, userId);
@@ -31,13 +33,13 @@ public class RequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsOwner(@RequestHeader(USER_ID_HEADER) Integer userId) {
+    public Mono<ResponseEntity<Object>> getRequestsOwner(@RequestHeader(USER_ID_HEADER) Integer userId) {
         log.info("Get user requests with userId={}", userId);
         return requestClient.getRequestsOwner(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getRequests(
+    public Mono<ResponseEntity<Object>> getRequests(
             @RequestHeader(USER_ID_HEADER) Integer userId,
             @PositiveOrZero @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
@@ -46,11 +48,12 @@ public class RequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(
+    public Mono<ResponseEntity<Object>> getById(
             @RequestHeader(USER_ID_HEADER) Integer userId,
-            @PathVariable Integer requestId) {
+            @PathVariable Integer requestId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get request {}, userId={}", requestId, userId);
-        return requestClient.getById(userId, requestId);
+        return requestClient.getById(userId, requestId, ifNoneMatch);
     }
 
 }
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.throttling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the calls from the gateway to the server and decides when new requests should be turned away
+ * before they reach it. Every call is measured through {@link #intercept} on the RestTemplate path and
+ * {@link #exchangeFilter()} on the WebClient path.
+ * <ul>
+ *     <li>When the calls in flight reach {@code saturation-threshold} of the connection pool, every new
+ *     request is shed: waiting for a connection would only add to the server's queue.</li>
+ *     <li>When the moving average of upstream latency exceeds {@code latency-threshold}, requests are shed
+ *     with a probability growing with the excess, capped at {@code max-shed-ratio} so that the remaining
+ *     calls keep measuring the server and shedding stops once it recovers.</li>
+ * </ul>
+ */
+@Component
+public class LoadShedder implements ClientHttpRequestInterceptor {
+    private static final double SMOOTHING = 0.1;
+
+    private final boolean enabled;
+    private final long latencyThreshold;
+    private final double saturationThreshold;
+    private final double maxShedRatio;
+    private final int maxConnections;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong averageLatency = new AtomicLong(Double.doubleToLongBits(0));
+
+    public LoadShedder(@Value("${shareit.load-shedding.enabled:true}") boolean enabled,
+                       @Value("${shareit.load-shedding.latency-threshold:PT1S}") Duration latencyThreshold,
+                       @Value("${shareit.load-shedding.saturation-threshold:0.9}") double saturationThreshold,
+                       @Value("${shareit.load-shedding.max-shed-ratio:0.9}") double maxShedRatio,
+                       @Value("${shareit-server.pool.max-connections:200}") int maxConnections) {
+        this.enabled = enabled;
+        this.latencyThreshold = latencyThreshold.toNanos();
+        this.saturationThreshold = saturationThreshold;
+        this.maxShedRatio = maxShedRatio;
+        this.maxConnections = maxConnections;
+    }
+
+    public boolean shouldShed() {
+        if (!enabled) {
+            return false;
+        }
+
+        if (inFlight.get() >= saturationThreshold * maxConnections) {
+            return true;
+        }
+
+        double latency = Double.longBitsToDouble(averageLatency.get());
+        if (latency <= latencyThreshold) {
+            return false;
+        }
+
+        double ratio = Math.min(maxShedRatio, (latency - latencyThreshold) / latencyThreshold);
+        return ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            inFlight.decrementAndGet();
+            record(System.nanoTime() - start);
+        }
+    }
+
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> Mono.defer(() -> {
+            long start = System.nanoTime();
+            inFlight.incrementAndGet();
+            return next.exchange(request)
+                    .doFinally(signal -> {
+                        inFlight.decrementAndGet();
+                        record(System.nanoTime() - start);
+                    });
+        });
+    }
+
+    void record(long latency) {
+        while (true) {
+            long current = averageLatency.get();
+            double average = Double.longBitsToDouble(current);
+            double updated = average + SMOOTHING * (latency - average);
+            if (averageLatency.compareAndSet(current, Double.doubleToLongBits(updated))) {
+                return;
+            }
+        }
+    }
+}
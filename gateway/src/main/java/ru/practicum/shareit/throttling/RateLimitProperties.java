@@ -0,0 +1,34 @@
+package ru.practicum.shareit.throttling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token bucket limits per endpoint group. A group is the first path segment ({@code users},
+ * {@code items}, {@code bookings}, {@code requests}); groups without limits of their own use
+ * {@code default}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    public static final String DEFAULT_GROUP = "default";
+
+    private boolean enabled;
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private Map<String, Limit> groups = new HashMap<>();
+
+    public Limit limitFor(String group) {
+        Limit limit = groups.get(group);
+        return limit != null ? limit : groups.getOrDefault(DEFAULT_GROUP, new Limit());
+    }
+
+    @Data
+    public static class Limit {
+        private double permitsPerSecond = 20;
+        private int burst = 40;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.throttling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link TokenBucket} per endpoint group and caller. Buckets live in a Caffeine map, which is striped
+ * internally, and are dropped after {@code shareit.rate-limit.idle-timeout} without requests.
+ */
+@Component
+public class RateLimiter {
+    private final RateLimitProperties properties;
+    private final Cache<Key, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    /**
+     * @return 0 when the request is allowed, otherwise the nanoseconds until the caller may retry
+     */
+    public long tryAcquire(String group, String caller) {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+
+        TokenBucket bucket = buckets.get(new Key(group, caller), key -> {
+            RateLimitProperties.Limit limit = properties.limitFor(group);
+            return new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst());
+        });
+        return bucket.tryAcquire(System.nanoTime());
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String group;
+        private final String caller;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.throttling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exception.OverloadedException;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects a request before it is proxied: with 429 when its caller has used up the rate limit of the
+ * endpoint group, with 503 when {@link LoadShedder} reports the server as overloaded. Callers are told
+ * apart by {@code X-Sharer-User-Id}, requests without it by the remote address.
+ */
+@Component
+public class ThrottlingInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public ThrottlingInterceptor(RateLimiter rateLimiter, LoadShedder loadShedder, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.rateLimited = meterRegistry.counter("gateway.throttled", "reason", "rate-limit");
+        this.shed = meterRegistry.counter("gateway.throttled", "reason", "overload");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+
+        String userId = request.getHeader(USER_ID_HEADER);
+        String caller = userId != null ? "user:" + userId : "address:" + request.getRemoteAddr();
+
+        long wait = rateLimiter.tryAcquire(group(request.getRequestURI()), caller);
+        if (wait > 0) {
+            rateLimited.increment();
+            throw new TooManyRequestsException(TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1);
+        }
+
+        if (loadShedder.shouldShed()) {
+            shed.increment();
+            throw new OverloadedException();
+        }
+        return true;
+    }
+
+    private static String group(String uri) {
+        int start = uri.startsWith("/") ? 1 : 0;
+        int end = uri.indexOf('/', start);
+        return end < 0 ? uri.substring(start) : uri.substring(start, end);
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count and a refill time the bucket keeps
+ * the single moment at which it would be full again, so an acquire is one compare-and-set.
+ */
+public final class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param permitsPerSecond refill rate
+     * @param burst            number of requests accepted at once from a full bucket
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this.interval = (long) (1_000_000_000L / permitsPerSecond);
+        this.tolerance = interval * Math.max(burst, 1);
+    }
+
+    /**
+     * Takes a token if there is one.
+     *
+     * @return 0 when the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
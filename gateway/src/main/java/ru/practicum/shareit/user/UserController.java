@@ -2,9 +2,11 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.Marker;
 
@@ -17,32 +19,33 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getById(@PathVariable Long userId) {
+    public Mono<ResponseEntity<Object>> getById(@PathVariable Long userId,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Get user with userId={}", userId);
-        return userClient.getById(userId);
+        return userClient.getById(userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         log.info("Get users request performing");
         return userClient.getAll();
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Validated({Marker.OnCreate.class}) @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Validated({Marker.OnCreate.class}) @RequestBody UserDto userDto) {
         log.info("Add user {}", userDto);
         return userClient.create(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@Validated({Marker.OnUpdate.class}) @RequestBody UserDto userDto,
+    public Mono<ResponseEntity<Object>> update(@Validated({Marker.OnUpdate.class}) @RequestBody UserDto userDto,
                                          @PathVariable Integer userId) {
         log.info("Update user {} with userId={}", userDto, userId);
         return userClient.update(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable Integer userId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable Integer userId) {
         log.info("Delete user with userId={}", userId);
         return userClient.delete(userId);
     }
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class BaseClientTest {
+    private static final String ITEM = "http://localhost:9090/items/1";
+    private static final String BODY = "{\"id\":1}";
+
+    private ItemClient itemClient;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        itemClient = new ItemClient("http://localhost:9090", new RestTemplateBuilder(), WebClient.builder(), false,
+                new ResponseCache(meterRegistry, true, 100, Duration.ZERO), new RequestCoalescer(meterRegistry, true));
+        server = MockRestServiceServer.bindTo(itemClient.rest).build();
+    }
+
+    @Test
+    public void testNotModifiedServesCachedBody() {
+        server.expect(requestTo(ITEM))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(ITEM))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag("\"v1\"")));
+
+        itemClient.getById(1, 1, null).block();
+        ResponseEntity<Object> response = itemClient.getById(1, 1, null).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY.getBytes(), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    @Test
+    public void testCallerHoldingCurrentVersionGetsNotModified() {
+        server.expect(requestTo(ITEM))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(ITEM))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag("\"v1\"")));
+
+        itemClient.getById(1, 1, null).block();
+        ResponseEntity<Object> response = itemClient.getById(1, 1, "\"v1\"").block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        server.verify();
+    }
+
+    @Test
+    public void testChangedVersionReplacesEntry() {
+        server.expect(requestTo(ITEM))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(ITEM))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withSuccess("{\"id\":2}", MediaType.APPLICATION_JSON).headers(etag("\"v2\"")));
+        server.expect(requestTo(ITEM))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        itemClient.getById(1, 1, null).block();
+        itemClient.getById(1, 1, null).block();
+        ResponseEntity<Object> response = itemClient.getById(1, 1, null).block();
+
+        assertArrayEquals("{\"id\":2}".getBytes(), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    @Test
+    public void testErrorDropsEntry() {
+        server.expect(requestTo(ITEM))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON).headers(etag("\"v1\"")));
+        server.expect(requestTo(ITEM))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+        server.expect(requestTo(ITEM))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        itemClient.getById(1, 1, null).block();
+        assertEquals(HttpStatus.NOT_FOUND, itemClient.getById(1, 1, null).block().getStatusCode());
+        itemClient.getById(1, 1, null).block();
+        server.verify();
+    }
+
+    @Test
+    public void testUntaggedResponseIsNotCached() {
+        server.expect(requestTo(ITEM))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+        server.expect(requestTo(ITEM))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+
+        itemClient.getById(1, 1, null).block();
+        itemClient.getById(1, 1, null).block();
+        server.verify();
+    }
+
+    private static HttpHeaders etag(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+}
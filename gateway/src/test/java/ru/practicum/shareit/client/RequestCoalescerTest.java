@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RequestCoalescerTest {
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private List<Sinks.One<ResponseEntity<Object>>> upstream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry, true);
+        upstream = new ArrayList<>();
+    }
+
+    @Test
+    public void testJoinsInFlightCall() {
+        List<ResponseEntity<Object>> responses = new ArrayList<>();
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe(responses::add);
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe(responses::add);
+
+        assertEquals(1, upstream.size());
+        assertEquals(0, responses.size());
+
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        upstream.get(0).tryEmitValue(response);
+
+        assertEquals(2, responses.size());
+        assertSame(response, responses.get(0));
+        assertSame(response, responses.get(1));
+        assertEquals(1, count("upstream"));
+        assertEquals(1, count("joined"));
+    }
+
+    @Test
+    public void testKeyReleasedAfterCompletion() {
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+        upstream.get(0).tryEmitValue(ResponseEntity.ok("item"));
+
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+
+        assertEquals(2, upstream.size());
+        assertEquals(2, count("upstream"));
+        assertEquals(0, count("joined"));
+    }
+
+    @Test
+    public void testKeyReleasedAfterError() {
+        List<Throwable> errors = new ArrayList<>();
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe(response -> { }, errors::add);
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe(response -> { }, errors::add);
+        upstream.get(0).tryEmitError(new IllegalStateException("server is down"));
+
+        assertEquals(2, errors.size());
+
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+        assertEquals(2, upstream.size());
+    }
+
+    @Test
+    public void testDifferentUsersAreNotMerged() {
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+        coalescer.coalesce(ITEM, headers(2), this::call).subscribe();
+
+        assertEquals(2, upstream.size());
+        assertEquals(0, count("joined"));
+    }
+
+    @Test
+    public void testDifferentIfNoneMatchAreNotMerged() {
+        HttpHeaders revalidation = headers(1);
+        revalidation.setIfNoneMatch("\"etag\"");
+
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+        coalescer.coalesce(ITEM, revalidation, this::call).subscribe();
+
+        assertEquals(2, upstream.size());
+        assertEquals(0, count("joined"));
+    }
+
+    @Test
+    public void testDifferentParametersAreNotMerged() {
+        coalescer.coalesce(URI.create("http://localhost:9090/items?from=0&size=10"), headers(1), this::call).subscribe();
+        coalescer.coalesce(URI.create("http://localhost:9090/items?from=10&size=10"), headers(1), this::call).subscribe();
+
+        assertEquals(2, upstream.size());
+    }
+
+    @Test
+    public void testDisabled() {
+        coalescer = new RequestCoalescer(meterRegistry, false);
+
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+        coalescer.coalesce(ITEM, headers(1), this::call).subscribe();
+
+        assertEquals(2, upstream.size());
+    }
+
+    private Mono<ResponseEntity<Object>> call() {
+        Sinks.One<ResponseEntity<Object>> sink = Sinks.one();
+        upstream.add(sink);
+        return sink.asMono();
+    }
+
+    private HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+
+    private double count(String role) {
+        return meterRegistry.get("gateway.coalescing").tag("role", role).counter().count();
+    }
+}
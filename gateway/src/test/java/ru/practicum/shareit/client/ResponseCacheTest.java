@@ -0,0 +1,131 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResponseCacheTest {
+    private static final URI ITEM = URI.create("http://localhost:9090/items/1");
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        responseCache = new ResponseCache(new SimpleMeterRegistry(), true, 100, Duration.ZERO);
+    }
+
+    @Test
+    public void testStoreTaggedResponse() {
+        ResponseEntity<Object> response = responseCache.store(ITEM, 1L, ok("\"v1\""), null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertEquals("\"v1\"", responseCache.get(ITEM, 1L).getEtag());
+        assertNull(responseCache.get(ITEM, 2L));
+    }
+
+    @Test
+    public void testDisabledStoresNothing() {
+        responseCache = new ResponseCache(new SimpleMeterRegistry(), false, 100, Duration.ZERO);
+
+        ResponseEntity<Object> response = responseCache.store(ITEM, 1L, ok("\"v1\""), "\"v1\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(responseCache.get(ITEM, 1L));
+    }
+
+    @Test
+    public void testMatchesSameTag() {
+        ResponseCache.Entry entry = store("\"v1\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entry.toResponse("\"v1\"").getStatusCode());
+        assertEquals(HttpStatus.OK, entry.toResponse("\"v2\"").getStatusCode());
+        assertEquals(HttpStatus.OK, entry.toResponse(null).getStatusCode());
+    }
+
+    @Test
+    public void testMatchesWeakTags() {
+        assertEquals(HttpStatus.NOT_MODIFIED, store("W/\"v1\"").toResponse("\"v1\"").getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, store("\"v1\"").toResponse("W/\"v1\"").getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, store("W/\"v1\"").toResponse("W/\"v1\"").getStatusCode());
+    }
+
+    @Test
+    public void testMatchesTagInList() {
+        ResponseCache.Entry entry = store("\"v2\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, entry.toResponse("\"v1\", W/\"v2\",\"v3\"").getStatusCode());
+        assertEquals(HttpStatus.OK, entry.toResponse("\"v1\", \"v3\"").getStatusCode());
+    }
+
+    @Test
+    public void testMatchesAnyTag() {
+        ResponseEntity<Object> response = store("\"v1\"").toResponse("*");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    public void testErrorResponseDropsEntry() {
+        store("\"v1\"");
+
+        ResponseEntity<Object> notFound = ResponseEntity.status(HttpStatus.NOT_FOUND).body(BODY);
+        assertEquals(notFound, responseCache.store(ITEM, 1L, notFound, null));
+        assertNull(responseCache.get(ITEM, 1L));
+    }
+
+    @Test
+    public void testUntaggedResponseDropsEntry() {
+        store("\"v1\"");
+
+        responseCache.store(ITEM, 1L, new ResponseEntity<>(BODY, HttpStatus.OK), null);
+        assertNull(responseCache.get(ITEM, 1L));
+    }
+
+    @Test
+    public void testRevalidatedServesCachedBody() {
+        ResponseCache.Entry entry = store("\"v1\"");
+
+        ResponseEntity<Object> response = responseCache.revalidated(ITEM, 1L, entry, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(BODY, (byte[]) response.getBody());
+        assertNotNull(responseCache.get(ITEM, 1L));
+    }
+
+    @Test
+    public void testFreshness() {
+        assertFalse(responseCache.isFresh(store("\"v1\"")));
+
+        responseCache = new ResponseCache(new SimpleMeterRegistry(), true, 100, Duration.ofHours(1));
+        assertTrue(responseCache.isFresh(store("\"v1\"")));
+    }
+
+    private ResponseCache.Entry store(String etag) {
+        responseCache.store(ITEM, 1L, ok(etag), null);
+        return responseCache.get(ITEM, 1L);
+    }
+
+    private static ResponseEntity<Object> ok(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return new ResponseEntity<>(BODY, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.throttling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadShedderTest {
+    private static final Duration THRESHOLD = Duration.ofMillis(100);
+
+    @Test
+    void testIdleServerIsNotShed() {
+        LoadShedder loadShedder = new LoadShedder(true, THRESHOLD, 0.9, 1.0, 10);
+
+        assertFalse(loadShedder.shouldShed());
+    }
+
+    @Test
+    void testShedsWhenPoolIsSaturated() {
+        LoadShedder loadShedder = new LoadShedder(true, THRESHOLD, 0.9, 1.0, 10);
+
+        List<Disposable> calls = hang(loadShedder, 8);
+        assertFalse(loadShedder.shouldShed());
+
+        calls.addAll(hang(loadShedder, 1));
+        assertTrue(loadShedder.shouldShed());
+
+        calls.forEach(Disposable::dispose);
+        assertFalse(loadShedder.shouldShed());
+    }
+
+    @Test
+    void testLatencyBelowThresholdIsNotShed() {
+        LoadShedder loadShedder = new LoadShedder(true, THRESHOLD, 0.9, 1.0, 10);
+
+        recordLatency(loadShedder, THRESHOLD.toNanos());
+
+        assertFalse(loadShedder.shouldShed());
+    }
+
+    @Test
+    void testShedsWhenLatencyFarAboveThreshold() {
+        LoadShedder loadShedder = new LoadShedder(true, THRESHOLD, 0.9, 1.0, 10);
+
+        recordLatency(loadShedder, THRESHOLD.toNanos() * 10);
+
+        assertTrue(loadShedder.shouldShed());
+    }
+
+    @Test
+    void testLatencySheddingIsCappedByMaxShedRatio() {
+        LoadShedder loadShedder = new LoadShedder(true, THRESHOLD, 0.9, 0.0, 10);
+
+        recordLatency(loadShedder, THRESHOLD.toNanos() * 10);
+
+        assertFalse(loadShedder.shouldShed());
+    }
+
+    @Test
+    void testDisabled() {
+        LoadShedder loadShedder = new LoadShedder(false, THRESHOLD, 0.9, 1.0, 10);
+
+        List<Disposable> calls = hang(loadShedder, 10);
+        recordLatency(loadShedder, THRESHOLD.toNanos() * 10);
+
+        assertFalse(loadShedder.shouldShed());
+        calls.forEach(Disposable::dispose);
+    }
+
+    private List<Disposable> hang(LoadShedder loadShedder, int count) {
+        ExchangeFilterFunction filter = loadShedder.exchangeFilter();
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/items")).build();
+
+        List<Disposable> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(filter.filter(request, r -> Mono.never()).subscribe());
+        }
+        return calls;
+    }
+
+    private void recordLatency(LoadShedder loadShedder, long latency) {
+        for (int i = 0; i < 100; i++) {
+            loadShedder.record(latency);
+        }
+    }
+}
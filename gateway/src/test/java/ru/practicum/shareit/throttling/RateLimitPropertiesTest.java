@@ -0,0 +1,52 @@
+package ru.practicum.shareit.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class RateLimitPropertiesTest {
+    @Test
+    void testDisabledByDefault() {
+        assertFalse(new RateLimitProperties().isEnabled());
+    }
+
+    @Test
+    void testLimitForOwnGroup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put(RateLimitProperties.DEFAULT_GROUP, limit(20, 40));
+        properties.getGroups().put("bookings", limit(5, 10));
+
+        RateLimitProperties.Limit limit = properties.limitFor("bookings");
+
+        assertEquals(5, limit.getPermitsPerSecond());
+        assertEquals(10, limit.getBurst());
+    }
+
+    @Test
+    void testLimitForFallsBackToDefaultGroup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getGroups().put(RateLimitProperties.DEFAULT_GROUP, limit(50, 100));
+        properties.getGroups().put("bookings", limit(5, 10));
+
+        RateLimitProperties.Limit limit = properties.limitFor("items");
+
+        assertEquals(50, limit.getPermitsPerSecond());
+        assertEquals(100, limit.getBurst());
+    }
+
+    @Test
+    void testLimitForWithoutAnyGroups() {
+        RateLimitProperties.Limit limit = new RateLimitProperties().limitFor("items");
+
+        assertEquals(20, limit.getPermitsPerSecond());
+        assertEquals(40, limit.getBurst());
+    }
+
+    private RateLimitProperties.Limit limit(double permitsPerSecond, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TokenBucketTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void testBurstIsAcceptedAtOnce() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(INTERVAL, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void testReturnedWaitShrinksOverTime() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(INTERVAL, bucket.tryAcquire(0));
+        assertEquals(INTERVAL - 30, bucket.tryAcquire(30));
+    }
+
+    @Test
+    void testRefillsAtRate() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(0, bucket.tryAcquire(INTERVAL));
+        assertEquals(INTERVAL, bucket.tryAcquire(INTERVAL));
+    }
+
+    @Test
+    void testIdleBucketDoesNotSaveMoreThanBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long later = TimeUnit.SECONDS.toNanos(60);
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(INTERVAL, bucket.tryAcquire(later));
+    }
+
+    @Test
+    void testRejectedAcquireDoesNotTakeToken() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(50);
+
+        assertEquals(0, bucket.tryAcquire(INTERVAL));
+    }
+}
@@ -35,15 +35,17 @@ public class BookingController {
     public List<BookingResponse> getAllByBooker(@RequestHeader(USER_ID_HEADER) Integer bookerId,
                                                 @Valid @RequestParam(value = "state", defaultValue = "ALL") String state,
                                                 @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                                @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return bookingService.getAllByBooker(bookerId, state, from, size);
+                                                @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                                @RequestParam(value = "after", required = false) String after) {
+        return bookingService.getAllByBooker(bookerId, state, from, size, after);
     }
 
     @GetMapping("/owner")
     public List<BookingResponse> getAllByOwner(@RequestHeader(USER_ID_HEADER) Integer ownerId,
                                                @Valid @RequestParam(value = "state", defaultValue = "ALL") String state,
                                                @RequestParam(value = "from", defaultValue = "0") Integer from,
-                                               @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return bookingService.getAllByOwner(ownerId, state, from, size);
+                                               @RequestParam(value = "size", defaultValue = "10") Integer size,
+                                               @RequestParam(value = "after", required = false) String after) {
+        return bookingService.getAllByOwner(ownerId, state, from, size, after);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position in a booking listing: start and id of the last booking the client has seen,
+ * passed as {@code after=2024-07-08T10:00:00,15}.
+ */
+@Data
+@AllArgsConstructor
+public class BookingCursor {
+    private LocalDateTime start;
+    private Integer id;
+
+    public static BookingCursor parse(String value) {
+        int separator = value.lastIndexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+
+        try {
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator).trim()),
+                    Integer.valueOf(value.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return start + "," + id;
+    }
+}
@@ -22,4 +22,13 @@ public class BookingResponse {
     private Status status;
     private ItemResponse item;
     private UserResponse booker;
+
+    public BookingResponse(Integer id, LocalDateTime start, LocalDateTime end, Status status,
+                           Integer itemId, String itemName, String itemDescription, Boolean itemAvailable,
+                           Integer itemOwnerId, Integer itemRequestId,
+                           Integer bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end, status,
+                new ItemResponse(itemId, itemName, itemDescription, itemAvailable, itemOwnerId, itemRequestId),
+                new UserResponse(bookerId, bookerName, bookerEmail));
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.model;
+
+import java.util.Optional;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static Optional<BookingState> from(String state) {
+        for (BookingState value : values()) {
+            if (value.name().equals(state)) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking listings by state, projected straight into {@link BookingResponse}. Results are returned
+ * as a {@link Slice}, so no count query is issued.
+ * With a cursor the page starts right after it (keyset pagination), otherwise at {@code offset}.
+ */
+public interface BookingListingRepository {
+    Slice<BookingResponse> findBookerBookings(Integer bookerId, BookingState state, LocalDateTime current,
+                                      BookingCursor after, int offset, int limit);
+
+    Slice<BookingResponse> findOwnerBookings(Integer ownerId, BookingState state, LocalDateTime current,
+                                     BookingCursor after, int offset, int limit);
+}
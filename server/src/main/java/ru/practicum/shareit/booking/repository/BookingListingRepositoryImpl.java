@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class BookingListingRepositoryImpl implements BookingListingRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingResponse> findBookerBookings(Integer bookerId, BookingState state, LocalDateTime current,
+                                             BookingCursor after, int offset, int limit) {
+        // current bookings of a booker are listed oldest first, every other listing newest first
+        return find("b.booker.id = :userId", bookerId, state, current, state != BookingState.CURRENT, after, offset, limit);
+    }
+
+    @Override
+    public Slice<BookingResponse> findOwnerBookings(Integer ownerId, BookingState state, LocalDateTime current,
+                                            BookingCursor after, int offset, int limit) {
+        return find("i.owner.id = :userId", ownerId, state, current, true, after, offset, limit);
+    }
+
+    private Slice<BookingResponse> find(String party, Integer userId, BookingState state, LocalDateTime current,
+                                boolean descending, BookingCursor after, int offset, int limit) {
+        // listings are only serialized, so rows go straight into BookingResponse without managed entities
+        StringBuilder jpql = new StringBuilder("select new ru.practicum.shareit.booking.dto.BookingResponse(" +
+                "b.id, b.start, b.end, b.status, i.id, i.name, i.description, i.available, i.owner.id, r.id, u.id, u.name, u.email) " +
+                "from Booking b join b.item i join b.booker u left join i.request r where ")
+                .append(party);
+
+        switch (state) {
+            case CURRENT:
+                jpql.append(" and b.start < :current and b.end > :current");
+                break;
+            case PAST:
+                jpql.append(" and b.end < :current");
+                break;
+            case FUTURE:
+                jpql.append(" and b.start > :current");
+                break;
+            case WAITING:
+            case REJECTED:
+                jpql.append(" and b.status = :status");
+                break;
+            default:
+                break;
+        }
+
+        String direction = descending ? "desc" : "asc";
+        if (after != null) {
+            String operator = descending ? "<" : ">";
+            // the redundant bound on b.start alone lets the planner turn the OR into an index range
+            jpql.append(" and b.start ").append(operator).append("= :afterStart")
+                    .append(" and (b.start ").append(operator).append(" :afterStart")
+                    .append(" or (b.start = :afterStart and b.id ").append(operator).append(" :afterId))");
+        }
+        jpql.append(" order by b.start ").append(direction).append(", b.id ").append(direction);
+
+        TypedQuery<BookingResponse> query = entityManager.createQuery(jpql.toString(), BookingResponse.class)
+                .setParameter("userId", userId);
+
+        switch (state) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                query.setParameter("current", current);
+                break;
+            case WAITING:
+            case REJECTED:
+                query.setParameter("status", Status.valueOf(state.name()));
+                break;
+            default:
+                break;
+        }
+
+        if (after != null) {
+            query.setParameter("afterStart", after.getStart())
+                    .setParameter("afterId", after.getId());
+        }
+
+        // one extra row tells whether there is a next slice without a count query
+        List<BookingResponse> bookings = query
+                .setFirstResult(after == null ? offset : 0)
+                .setMaxResults(limit + 1)
+                .getResultList();
+
+        boolean hasNext = bookings.size() > limit;
+        return new SliceImpl<>(hasNext ? bookings.subList(0, limit) : bookings, PageRequest.of(after == null ? offset / limit : 0, limit), hasNext);
+    }
+}
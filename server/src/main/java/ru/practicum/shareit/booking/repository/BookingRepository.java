@@ -1,39 +1,60 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
-    Page<Booking> findBookingsByBooker_IdOrderByStartDesc(Integer bookerId, Pageable page);
+public interface BookingRepository extends JpaRepository<Booking, Integer>, BookingListingRepository {
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Integer id);
 
-    Page<Booking> findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(Integer bookerId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    Page<Booking> findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(Integer bookerId, LocalDateTime localDateTime, Pageable page);
-
-    Page<Booking> findBookingsByBooker_IdAndStartAfterOrderByStartDesc(Integer bookerId, LocalDateTime localDateTime, Pageable page);
-
-    Page<Booking> findBookingsByBooker_IdAndStatusOrderByStartDesc(Integer bookerId, Status status, Pageable page);
-
-    Page<Booking> findBookingsByItemOwnerIdOrderByStartDesc(Integer ownerId, Pageable page);
-
-    Page<Booking> findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Integer ownerId, LocalDateTime start, LocalDateTime end, Pageable page);
-
-    Page<Booking> findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(Integer ownerId, LocalDateTime localDateTime, Pageable page);
-
-    Page<Booking> findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(Integer ownerId, LocalDateTime localDateTime, Pageable page);
-
-    Page<Booking> findBookingsByItemOwnerIdAndStatusOrderByStartDesc(Integer ownerId, Status status, Pageable page);
-
-    Optional<Booking> findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(LocalDateTime localDateTime, Status status, Integer itemId);
+    @Query(value = "select * from bookings as b " +
+            "where b.item_id = :itemId and b.status = :#{#status.name()} and b.start_date <= :current " +
+            "order by b.end_date desc limit 1", nativeQuery = true)
+    Optional<Booking> findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(@Param("current") LocalDateTime localDateTime,
+                                                                                          @Param("status") Status status,
+                                                                                          @Param("itemId") Integer itemId);
 
-    Optional<Booking> findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(LocalDateTime localDateTime, Status status, Integer itemId);
+    @Query(value = "select * from bookings as b " +
+            "where b.item_id = :itemId and b.status = :#{#status.name()} and b.start_date > :current " +
+            "order by b.start_date limit 1", nativeQuery = true)
+    Optional<Booking> findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(@Param("current") LocalDateTime localDateTime,
+                                                                                @Param("status") Status status,
+                                                                                @Param("itemId") Integer itemId);
+
+    @Query("select b from Booking b where b.item.id = :itemId and b.status = :status and b.end > :after")
+    List<Booking> findBookingsByItemIdAndStatusAndEndAfter(@Param("itemId") Integer itemId, @Param("status") Status status,
+                                                           @Param("after") LocalDateTime after);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status = :status and b.start < :end and b.end > :start")
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfter(@Param("itemId") Integer itemId, @Param("status") Status status,
+                                                             @Param("end") LocalDateTime end, @Param("start") LocalDateTime start);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status = :status and b.start < :end and b.end > :start and b.id <> :bookingId")
+    boolean existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(@Param("itemId") Integer itemId, @Param("status") Status status,
+                                                                     @Param("end") LocalDateTime end, @Param("start") LocalDateTime start,
+                                                                     @Param("bookingId") Integer bookingId);
+
+    @Query("select distinct b.item.id from Booking b where b.status = :status and b.item.id > :itemId order by b.item.id")
+    Slice<Integer> findItemIdsByStatus(@Param("status") Status status, @Param("itemId") Integer itemId, Pageable page);
+
+    @Query("select b from Booking b where b.item.id in :itemIds and b.status = :status and b.end > :after")
+    List<Booking> findBookingsByItemIdInAndStatusAndEndAfter(@Param("itemIds") Collection<Integer> itemIds,
+                                                             @Param("status") Status status,
+                                                             @Param("after") LocalDateTime after);
 
     @Query(value = "select * from bookings as b " +
             "left join items as i on b.item_id = i.id " +
@@ -41,5 +62,17 @@ public interface BookingRepository extends JpaRepository<Booking, Integer> {
             "limit 1", nativeQuery = true)
     Optional<Booking> findCompletedBooking(Integer itemId, Integer bookerId);
 
-
+    @Query(value = "select b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status from (" +
+            "select bk.*, row_number() over (partition by bk.item_id order by bk.end_date desc) as rn " +
+            "from bookings as bk " +
+            "where bk.item_id in (:itemIds) and bk.status = 'APPROVED' and bk.start_date <= :current) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<Booking> findLastBookings(@Param("itemIds") Collection<Integer> itemIds, @Param("current") LocalDateTime current);
+
+    @Query(value = "select b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.status from (" +
+            "select bk.*, row_number() over (partition by bk.item_id order by bk.start_date) as rn " +
+            "from bookings as bk " +
+            "where bk.item_id in (:itemIds) and bk.status = 'APPROVED' and bk.start_date > :current) as b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<Booking> findNextBookings(@Param("itemIds") Collection<Integer> itemIds, @Param("current") LocalDateTime current);
 }
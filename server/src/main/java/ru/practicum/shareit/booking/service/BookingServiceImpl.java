@@ -2,35 +2,45 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.utils.BookingMapper;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.exception.exceptions.BookingOverlapException;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.exception.exceptions.StatusException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
     private final ItemRepository itemRepository;
+    private final BookingTimeline bookingTimeline;
+    private final ReadYourWrites readYourWrites;
+    private final ItemCache itemCache;
 
     @Override
+    @Transactional
     public BookingResponse create(BookingRequest request, Integer bookerId) {
         log.info("create method booking");
 
@@ -51,14 +61,26 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException();
         }
 
+        // the timeline may lag behind the database, so a hit is confirmed before the request is refused
+        if (bookingTimeline.overlaps(item.getId(), start, end)) {
+            if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(item.getId(), Status.APPROVED, end, start)) {
+                throw new BookingOverlapException();
+            }
+            bookingTimeline.evict(item.getId());
+        }
+
         booking.setItem(item);
         booking.setBooker(userRepository.findById(bookerId).orElseThrow(NotFoundException::new));
         booking.setStatus(Status.WAITING);
 
-        return BookingMapper.mapToResponse(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        readYourWrites.recordWrite(bookerId, item.getOwner().getId());
+
+        return BookingMapper.mapToResponse(saved);
     }
 
     @Override
+    @Transactional
     public BookingResponse approve(Integer ownerId, Integer bookingId, Boolean approved) {
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(NotFoundException::new);
 
@@ -70,13 +92,28 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException();
         }
 
+        if (approved) {
+            // the item row lock serializes concurrent approvals of overlapping requests for the same item
+            itemRepository.findItemForUpdate(booking.getItem().getId()).orElseThrow(NotFoundException::new);
+
+            if (bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(booking.getItem().getId(),
+                    Status.APPROVED, booking.getEnd(), booking.getStart(), booking.getId())) {
+                throw new BookingOverlapException();
+            }
+        }
+
         booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+        Booking saved = bookingRepository.save(booking);
+        bookingTimeline.update(saved);
+        itemCache.evict(saved.getItem().getId());
+        readYourWrites.recordWrite(ownerId, saved.getBooker().getId());
 
-        return BookingMapper.mapToResponse(bookingRepository.save(booking));
+        return BookingMapper.mapToResponse(saved);
     }
 
     @Override
     public BookingResponse getById(Integer bookingId, Integer userId) {
+        readYourWrites.routeToPrimaryIfRecentWrite(userId);
         Booking booking = bookingRepository.findById(bookingId).orElseThrow(NotFoundException::new);
 
         if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
@@ -87,88 +124,42 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponse> getAllByBooker(Integer bookerId, String state, Integer from, Integer size) {
-        if (userRepository.findById(bookerId).isEmpty()) {
+    public List<BookingResponse> getAllByBooker(Integer bookerId, String state, Integer from, Integer size, String after) {
+        readYourWrites.routeToPrimaryIfRecentWrite(bookerId);
+        if (!userIdCache.exists(bookerId)) {
             throw new NotFoundException();
         }
 
-        if (from < 0 || size <= 0) {
-            throw new IllegalArgumentException();
-        }
+        BookingCursor cursor = parseCursor(from, size, after);
+        BookingState bookingState = parseState(state);
 
-        PageRequest page = PageRequest.of(from / size, size);
-        Page<Booking> bookings;
-        LocalDateTime current = LocalDateTime.now();
-
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findBookingsByBooker_IdOrderByStartDesc(bookerId, page);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(bookerId, current, current, page);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(bookerId, current, page);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findBookingsByBooker_IdAndStartAfterOrderByStartDesc(bookerId, current, page);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findBookingsByBooker_IdAndStatusOrderByStartDesc(bookerId, Status.WAITING, page);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findBookingsByBooker_IdAndStatusOrderByStartDesc(bookerId, Status.REJECTED, page);
-                break;
-            default:
-                throw new StatusException(state);
-        }
-
-        return bookings.stream()
-                .map(BookingMapper::mapToResponse)
-                .collect(Collectors.toList());
+        return bookingRepository.findBookerBookings(bookerId, bookingState, LocalDateTime.now(), cursor, from / size * size, size)
+                .getContent();
     }
 
     @Override
-    public List<BookingResponse> getAllByOwner(Integer ownerId, String state, Integer from, Integer size) {
-        if (userRepository.findById(ownerId).isEmpty()) {
+    public List<BookingResponse> getAllByOwner(Integer ownerId, String state, Integer from, Integer size, String after) {
+        readYourWrites.routeToPrimaryIfRecentWrite(ownerId);
+        if (!userIdCache.exists(ownerId)) {
             throw new NotFoundException();
         }
 
+        BookingCursor cursor = parseCursor(from, size, after);
+        BookingState bookingState = parseState(state);
+
+        return bookingRepository.findOwnerBookings(ownerId, bookingState, LocalDateTime.now(), cursor, from / size * size, size)
+                .getContent();
+    }
+
+    private static BookingState parseState(String state) {
+        return BookingState.from(state).orElseThrow(() -> new StatusException(state));
+    }
+
+    private static BookingCursor parseCursor(Integer from, Integer size, String after) {
         if (from < 0 || size <= 0) {
             throw new IllegalArgumentException();
         }
 
-        PageRequest page = PageRequest.of(from / size, size);
-        Page<Booking> bookings;
-        LocalDateTime current = LocalDateTime.now();
-
-        switch (state) {
-            case "ALL":
-                bookings = bookingRepository.findBookingsByItemOwnerIdOrderByStartDesc(ownerId, page);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(ownerId, current, current, page);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, current, page);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, current, page);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(ownerId, Status.WAITING, page);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(ownerId, Status.REJECTED, page);
-                break;
-            default:
-                throw new StatusException(state);
-        }
-
-        System.out.println(bookings);
-
-        return bookings.stream()
-                .map(BookingMapper::mapToResponse)
-                .collect(Collectors.toList());
+        return after == null ? null : BookingCursor.parse(after);
     }
 }
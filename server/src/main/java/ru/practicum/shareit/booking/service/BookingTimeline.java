@@ -0,0 +1,222 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortResponse;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.utils.BookingMapper;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.utils.KeysetBatches;
+import ru.practicum.shareit.utils.TransactionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process index of APPROVED bookings per item. Answers last/next booking and
+ * "is the item booked at T" without a database round-trip. Items are loaded on first
+ * access, preloaded at startup and periodically compared with {@link BookingRepository}.
+ * Only bookings that have not ended are kept, plus the last one that has, and the index holds
+ * at most {@code maximum-bookings} of them across all items.
+ */
+@Component
+@Slf4j
+public class BookingTimeline {
+    private final BookingRepository bookingRepository;
+    private final ReadYourWrites readYourWrites;
+    private final boolean warmUp;
+    private final int batchSize;
+    private final long maximumBookings;
+    private final Cache<Integer, ItemTimeline> timelines;
+    private final AtomicLong changes = new AtomicLong();
+
+    public BookingTimeline(BookingRepository bookingRepository,
+                           ReadYourWrites readYourWrites,
+                           @Value("${shareit.booking-timeline.warm-up:true}") boolean warmUp,
+                           @Value("${shareit.booking-timeline.batch-size:1000}") int batchSize,
+                           @Value("${shareit.booking-timeline.maximum-bookings:1000000}") long maximumBookings) {
+        this.bookingRepository = bookingRepository;
+        this.readYourWrites = readYourWrites;
+        this.warmUp = warmUp;
+        this.batchSize = batchSize;
+        this.maximumBookings = maximumBookings;
+        this.timelines = Caffeine.newBuilder()
+                .maximumWeight(maximumBookings)
+                .weigher((Integer itemId, ItemTimeline timeline) -> timeline.size() + 1)
+                .build();
+    }
+
+    public Optional<BookingShortResponse> findLast(Integer itemId, LocalDateTime current) {
+        return timeline(itemId).last(current);
+    }
+
+    public Optional<BookingShortResponse> findNext(Integer itemId, LocalDateTime current) {
+        return timeline(itemId).next(current);
+    }
+
+    public boolean isBookedAt(Integer itemId, LocalDateTime time) {
+        return timeline(itemId).isBookedAt(time);
+    }
+
+    /**
+     * Answered from the timeline when the item is loaded. A miss goes to the indexed range query instead of
+     * loading the item, since checking one interval does not need its bookings.
+     */
+    public boolean overlaps(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            return readYourWrites.onPrimary(() -> bookingRepository
+                    .existsByItemIdAndStatusAndStartBeforeAndEndAfter(itemId, Status.APPROVED, end, start));
+        }
+        return timeline.overlaps(start, end);
+    }
+
+    /**
+     * Records a booking status change once the surrounding transaction commits. Items that were
+     * never loaded are skipped: their first lookup reads the current state from the database anyway.
+     */
+    public void update(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        Integer bookingId = booking.getId();
+        BookingShortResponse approved = booking.getStatus() == Status.APPROVED ? BookingMapper.mapToShortResponse(booking) : null;
+
+        TransactionUtils.afterCommit(() -> {
+            changes.incrementAndGet();
+            timelines.asMap().computeIfPresent(itemId,
+                    (id, timeline) -> approved != null
+                            ? timeline.with(approved).pruned(LocalDateTime.now())
+                            : timeline.without(bookingId));
+        });
+    }
+
+    public void evict(Integer itemId) {
+        changes.incrementAndGet();
+        timelines.invalidate(itemId);
+    }
+
+    /**
+     * Used when a user is deleted: the cascade removes their bookings and all bookings of their items.
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(() -> {
+            changes.incrementAndGet();
+            timelines.invalidateAll();
+        });
+    }
+
+    /**
+     * Preloads items with approved bookings, one batch of items at a time, until the index is full.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!warmUp) {
+            return;
+        }
+
+        readYourWrites.onPrimary(() -> KeysetBatches.forEachWhile(
+                (lastId, page) -> bookingRepository.findItemIdsByStatus(Status.APPROVED, lastId, page),
+                itemId -> itemId, batchSize, itemIds -> {
+                    long seenChanges = changes.get();
+                    LocalDateTime current = LocalDateTime.now();
+                    Stream.concat(
+                                    bookingRepository.findBookingsByItemIdInAndStatusAndEndAfter(itemIds, Status.APPROVED, current).stream(),
+                                    bookingRepository.findLastBookings(itemIds, current).stream()
+                                            .filter(last -> !last.getEnd().isAfter(current)))
+                            .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                                    Collectors.mapping(BookingMapper::mapToShortResponse, Collectors.toList())))
+                            .forEach((itemId, bookings) -> cache(itemId, ItemTimeline.of(bookings), seenChanges));
+                    return weightedSize() < maximumBookings;
+                }));
+        log.info("booking timeline loaded for {} items, {} bookings", timelines.estimatedSize(), weightedSize());
+    }
+
+    /**
+     * Compares a sample of loaded items with the database and drops the ones that drifted,
+     * so they are reloaded on next access.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-timeline.check-interval:PT5M}",
+            initialDelayString = "${shareit.booking-timeline.check-interval:PT5M}")
+    public void checkConsistency() {
+        List<Integer> itemIds = new ArrayList<>(timelines.asMap().keySet());
+        Collections.shuffle(itemIds);
+
+        long evicted = itemIds.stream()
+                .limit(batchSize)
+                .filter(itemId -> !isConsistent(itemId, LocalDateTime.now()))
+                .peek(this::evict)
+                .count();
+
+        if (evicted > 0) {
+            log.warn("booking timeline evicted {} inconsistent items", evicted);
+        }
+    }
+
+    public boolean isConsistent(Integer itemId, LocalDateTime current) {
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            return true;
+        }
+
+        Optional<Integer> last = readYourWrites.onPrimary(() -> bookingRepository
+                .findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(current, Status.APPROVED, itemId)
+                .map(Booking::getId));
+        Optional<Integer> next = readYourWrites.onPrimary(() -> bookingRepository
+                .findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(current, Status.APPROVED, itemId)
+                .map(Booking::getId));
+
+        return last.equals(timeline.last(current).map(BookingShortResponse::getId))
+                && next.equals(timeline.next(current).map(BookingShortResponse::getId));
+    }
+
+    private ItemTimeline timeline(Integer itemId) {
+        ItemTimeline timeline = timelines.getIfPresent(itemId);
+        if (timeline != null) {
+            return timeline;
+        }
+
+        long seenChanges = changes.get();
+        LocalDateTime current = LocalDateTime.now();
+        ItemTimeline loaded = ItemTimeline.of(readYourWrites.onPrimary(() -> {
+            List<Booking> bookings = new ArrayList<>(
+                    bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(itemId, Status.APPROVED, current));
+            bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(current, Status.APPROVED, itemId)
+                    .filter(last -> !last.getEnd().isAfter(current))
+                    .ifPresent(bookings::add);
+            return bookings;
+        }).stream()
+                .map(BookingMapper::mapToShortResponse)
+                .collect(Collectors.toList()));
+        return cache(itemId, loaded, seenChanges);
+    }
+
+    private long weightedSize() {
+        // weights are applied by Caffeine's asynchronous maintenance, which is run here so the total is current
+        timelines.cleanUp();
+        return timelines.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    /**
+     * Keeps a timeline read from the database unless bookings changed since the read began: that change may
+     * have been committed after the read and would be lost. The query itself runs outside of the map, only the
+     * check and the insert are atomic with {@link #update} of the same item.
+     */
+    private ItemTimeline cache(Integer itemId, ItemTimeline loaded, long seenChanges) {
+        ItemTimeline cached = timelines.asMap().compute(itemId,
+                (id, existing) -> existing != null || changes.get() != seenChanges ? existing : loaded);
+        return cached != null ? cached : loaded;
+    }
+}
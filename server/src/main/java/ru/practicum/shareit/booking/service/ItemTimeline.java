@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingShortResponse;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the approved bookings of one item, sorted by start. Of the bookings that have
+ * already ended only the latest is needed, so {@link BookingTimeline} loads and keeps just that one.
+ * {@code maxEnd[i]} points to the booking with the latest end among {@code bookings[0..i]},
+ * so last/next/overlap lookups are a binary search plus one array read.
+ */
+final class ItemTimeline {
+    private static final Comparator<BookingShortResponse> BY_START =
+            Comparator.comparing(BookingShortResponse::getStart).thenComparing(BookingShortResponse::getId);
+
+    private final BookingShortResponse[] bookings;
+    private final int[] maxEnd;
+
+    private ItemTimeline(BookingShortResponse[] bookings) {
+        this.bookings = bookings;
+        this.maxEnd = new int[bookings.length];
+
+        for (int i = 0; i < bookings.length; i++) {
+            maxEnd[i] = i == 0 || !bookings[i].getEnd().isBefore(bookings[maxEnd[i - 1]].getEnd()) ? i : maxEnd[i - 1];
+        }
+    }
+
+    static ItemTimeline of(List<BookingShortResponse> bookings) {
+        BookingShortResponse[] sorted = bookings.toArray(new BookingShortResponse[0]);
+        Arrays.sort(sorted, BY_START);
+        return new ItemTimeline(sorted);
+    }
+
+    /**
+     * Adds or replaces a booking. The copy is unavoidable for an immutable snapshot, but the position
+     * is found with a binary search instead of sorting again.
+     */
+    ItemTimeline with(BookingShortResponse booking) {
+        BookingShortResponse[] others = without(booking.getId()).bookings;
+        int found = Arrays.binarySearch(others, booking, BY_START);
+        int index = found < 0 ? -found - 1 : found;
+
+        BookingShortResponse[] copy = new BookingShortResponse[others.length + 1];
+        System.arraycopy(others, 0, copy, 0, index);
+        copy[index] = booking;
+        System.arraycopy(others, index, copy, index + 1, others.length - index);
+        return new ItemTimeline(copy);
+    }
+
+    ItemTimeline without(Integer bookingId) {
+        for (int i = 0; i < bookings.length; i++) {
+            if (bookings[i].getId().equals(bookingId)) {
+                BookingShortResponse[] copy = new BookingShortResponse[bookings.length - 1];
+                System.arraycopy(bookings, 0, copy, 0, i);
+                System.arraycopy(bookings, i + 1, copy, i, copy.length - i);
+                return new ItemTimeline(copy);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Drops the leading bookings that all ended by {@code current}, except the one that ended last:
+     * it stays the last booking for any later time, the others can no longer be returned.
+     */
+    ItemTimeline pruned(LocalDateTime current) {
+        int low = 0;
+        int high = bookings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bookings[maxEnd[mid]].getEnd().isAfter(current)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        if (low < 2) {
+            return this;
+        }
+
+        BookingShortResponse[] copy = new BookingShortResponse[bookings.length - low + 1];
+        copy[0] = bookings[maxEnd[low - 1]];
+        System.arraycopy(bookings, low, copy, 1, bookings.length - low);
+        return new ItemTimeline(copy);
+    }
+
+    int size() {
+        return bookings.length;
+    }
+
+    /**
+     * Booking with the latest end among those started at or before {@code current}.
+     */
+    Optional<BookingShortResponse> last(LocalDateTime current) {
+        int index = countStartedUpTo(current) - 1;
+        return index < 0 ? Optional.empty() : Optional.of(copy(bookings[maxEnd[index]]));
+    }
+
+    /**
+     * Booking with the earliest start strictly after {@code current}.
+     */
+    Optional<BookingShortResponse> next(LocalDateTime current) {
+        int index = countStartedUpTo(current);
+        return index == bookings.length ? Optional.empty() : Optional.of(copy(bookings[index]));
+    }
+
+    boolean isBookedAt(LocalDateTime time) {
+        int index = countStartedUpTo(time) - 1;
+        return index >= 0 && bookings[maxEnd[index]].getEnd().isAfter(time);
+    }
+
+    /**
+     * Whether any booking intersects the half-open interval {@code [start, end)}.
+     */
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        int index = countStartedBefore(end) - 1;
+        return index >= 0 && bookings[maxEnd[index]].getEnd().isAfter(start);
+    }
+
+    private int countStartedUpTo(LocalDateTime time) {
+        int low = 0;
+        int high = bookings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bookings[mid].getStart().isAfter(time)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    private int countStartedBefore(LocalDateTime time) {
+        int low = 0;
+        int high = bookings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (bookings[mid].getStart().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static BookingShortResponse copy(BookingShortResponse booking) {
+        return new BookingShortResponse(booking.getId(), booking.getStart(), booking.getEnd(), booking.getBookerId());
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.utils.TransactionUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers users that have just written through the primary and sends their next read-only
+ * transactions to the primary as well, until the replicas had time to catch up. Reads that fill
+ * in-memory caches always go to the primary through {@link #onPrimary}.
+ */
+@Component
+public class ReadYourWrites {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final TransactionTemplate primaryReadOnly;
+    private final ConcurrentMap<Integer, Long> writes = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(@Value("${shareit.datasource.replica.read-your-writes:PT5S}") Duration window,
+                          PlatformTransactionManager transactionManager) {
+        this.windowNanos = window.toNanos();
+        this.primaryReadOnly = new TransactionTemplate(transactionManager);
+        this.primaryReadOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.primaryReadOnly.setReadOnly(true);
+    }
+
+    /**
+     * Starts the window for the given users once the surrounding transaction commits.
+     */
+    public void recordWrite(Integer... userIds) {
+        TransactionUtils.afterCommit(() -> {
+            long until = System.nanoTime() + windowNanos;
+            for (Integer userId : userIds) {
+                writes.put(userId, until);
+            }
+
+            if (writes.size() > PRUNE_THRESHOLD) {
+                long now = System.nanoTime();
+                writes.values().removeIf(expiry -> expiry - now < 0);
+            }
+        });
+    }
+
+    /**
+     * Must be called before the first statement of the transaction, the connection is picked then.
+     */
+    public void routeToPrimaryIfRecentWrite(Integer userId) {
+        Long until = writes.get(userId);
+        if (until == null) {
+            return;
+        }
+
+        if (until - System.nanoTime() < 0) {
+            writes.remove(userId, until);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PRIMARY.set(true);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    PRIMARY.remove();
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a read that fills an in-memory cache on the primary: a row read from a lagging replica would be
+     * served from the cache long after the replica caught up. A transaction that has not touched the database
+     * yet is sent to the primary as a whole; one already reading from a replica is suspended for the read.
+     */
+    public <T> T onPrimary(Supplier<T> read) {
+        if (isPrimaryRequired()) {
+            return read.get();
+        }
+
+        PRIMARY.set(true);
+        try {
+            return REPLICA.get() != null ? primaryReadOnly.execute(status -> read.get()) : read.get();
+        } finally {
+            PRIMARY.remove();
+        }
+    }
+
+    static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * Called by the routing data source when it hands a replica connection to the current transaction.
+     */
+    static void replicaSelected() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            REPLICA.set(true);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    REPLICA.remove();
+                }
+            });
+        }
+    }
+}
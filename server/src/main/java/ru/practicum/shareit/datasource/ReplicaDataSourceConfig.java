@@ -0,0 +1,57 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single datasource with primary + replicas when {@code shareit.datasource.replica.urls}
+ * is set. Replicas share the driver and credentials of {@code spring.datasource}. Every pool takes the
+ * {@code spring.datasource.hikari} settings, as the single datasource would; replica pools can override
+ * them under {@code shareit.datasource.replica.hikari}.
+ */
+@Configuration
+@ConditionalOnExpression("!'${shareit.datasource.replica.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+    private static final String HIKARI = "spring.datasource.hikari";
+    private static final String REPLICA_HIKARI = "shareit.datasource.replica.hikari";
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 @Value("${shareit.datasource.replica.urls}") List<String> replicaUrls) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = build(properties, binder, properties.determineUrl(), "primary", HIKARI);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            replicas.add(build(properties, binder, replicaUrls.get(i).trim(), "replica-" + i, HIKARI, REPLICA_HIKARI));
+        }
+
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas));
+    }
+
+    private static HikariDataSource build(DataSourceProperties properties, Binder binder, String url, String poolName,
+                                          String... hikariPrefixes) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        for (String prefix : hikariPrefixes) {
+            binder.bind(prefix, Bindable.ofInstance(dataSource));
+        }
+        // set last, so that a configured pool name does not give every pool the same metrics
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+}
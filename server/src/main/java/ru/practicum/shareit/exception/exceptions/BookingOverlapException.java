@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.exceptions;
+
+public class BookingOverlapException extends RuntimeException {
+    public BookingOverlapException() {
+        super("Вещь уже забронирована на это время");
+    }
+}
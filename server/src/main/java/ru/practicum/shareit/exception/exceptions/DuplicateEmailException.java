@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exception.exceptions;
+
+public class DuplicateEmailException extends RuntimeException {
+    public DuplicateEmailException() {
+        super("Пользователь с таким email уже существует");
+    }
+}
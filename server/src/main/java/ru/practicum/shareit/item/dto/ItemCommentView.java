@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment row of a multi-item listing, together with the id of the item it belongs to.
+ */
+public interface ItemCommentView {
+    Integer getItemId();
+
+    Integer getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
@@ -19,4 +19,8 @@ public class ItemWithBookingResponse {
     private BookingShortResponse lastBooking;
     private BookingShortResponse nextBooking;
     private List<CommentResponse> comments;
+
+    public ItemWithBookingResponse(Integer id, String name, String description, Boolean available, Integer ownerId) {
+        this(id, name, description, available, ownerId, null, null, null);
+    }
 }
@@ -1,10 +1,27 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentResponse;
+import ru.practicum.shareit.item.dto.ItemCommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
-    List<Comment> findCommentsByItemId(Integer itemId);
+    @Query("select new ru.practicum.shareit.item.dto.CommentResponse(c.id, c.text, a.name, c.created) " +
+            "from Comment c join c.author a where c.item.id = :itemId")
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = "item-comments")
+    })
+    List<CommentResponse> findCommentsByItemId(@Param("itemId") Integer itemId);
+
+    @Query("select c.item.id as itemId, c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a where c.item.id in :itemIds")
+    List<ItemCommentView> findCommentsByItemIds(@Param("itemIds") Collection<Integer> itemIds);
 }
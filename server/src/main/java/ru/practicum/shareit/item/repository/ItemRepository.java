@@ -1,17 +1,53 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemResponse;
+import ru.practicum.shareit.item.dto.ItemWithBookingResponse;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Integer> {
 
-    Page<Item> findItemsByOwnerIdOrderByIdAsc(Integer ownerId, Pageable page);
+    @Query("select new ru.practicum.shareit.item.dto.ItemWithBookingResponse(i.id, i.name, i.description, i.available, i.owner.id) " +
+            "from Item i where i.owner.id = :ownerId order by i.id")
+    List<ItemWithBookingResponse> findOwnerItems(@Param("ownerId") Integer ownerId, Pageable page);
 
-    Page<Item> findItemsByNameOrDescriptionContainsIgnoreCaseAndAvailableTrue(String name, String description, Pageable page);
+    Slice<Item> findItemsByIdGreaterThanOrderByIdAsc(Integer id, Pageable page);
 
-    List<Item> findItemsByRequestId(Integer id);
+    /**
+     * Case-insensitive substring search over name and description of available items, with {@code %} and
+     * {@code _} in the text matched literally.
+     * Exact name matches come first, then name prefixes, then other name matches, then description-only ones.
+     * On Postgres both predicates are served by the trigram indexes from the Postgres migrations.
+     */
+    @Query("select new ru.practicum.shareit.item.dto.ItemResponse(i.id, i.name, i.description, i.available, i.owner.id, r.id) " +
+            "from Item i left join i.request r " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%', lower(:#{escape([0])}), '%') escape :#{escapeCharacter()} " +
+            "or lower(i.description) like concat('%', lower(:#{escape([0])}), '%') escape :#{escapeCharacter()}) " +
+            "order by case " +
+            "when lower(i.name) = lower(:text) then 0 " +
+            "when lower(i.name) like concat(lower(:#{escape([0])}), '%') escape :#{escapeCharacter()} then 1 " +
+            "when lower(i.name) like concat('%', lower(:#{escape([0])}), '%') escape :#{escapeCharacter()} then 2 " +
+            "else 3 end, i.id")
+    List<ItemResponse> searchAvailable(@Param("text") String text, Pageable page);
+
+    @Query("select i from Item i where i.request.id = :id")
+    List<Item> findItemsByRequestId(@Param("id") Integer id);
+
+    @Query("select i from Item i where i.request.id in :ids")
+    List<Item> findItemsByRequestIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findItemForUpdate(@Param("id") Integer id);
 }
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingShortResponse;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.item.dto.ItemWithBookingResponse;
+import ru.practicum.shareit.utils.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of {@link ItemWithBookingResponse} for {@code GET /items/{id}}, one entry per item
+ * for other users and one for the owner. The owner view expires no later than the start of its next
+ * booking, since that is when last and next booking change by themselves. Every other change evicts
+ * the item explicitly once the writing transaction commits.
+ */
+@Component
+public class ItemCache {
+    private final Cache<Key, ItemWithBookingResponse> cache;
+    private final TransactionTemplate readOnly;
+    private final ReadYourWrites readYourWrites;
+
+    public ItemCache(PlatformTransactionManager transactionManager,
+                     ReadYourWrites readYourWrites,
+                     MeterRegistry meterRegistry,
+                     @Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.item-cache.time-to-live:PT10M}") Duration timeToLive) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilNextBooking(timeToLive.toNanos()))
+                .recordStats()
+                .build();
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readYourWrites = readYourWrites;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    /**
+     * Returns the view for other users or builds it with the loader in a read-only transaction on the primary,
+     * so that an item evicted after a write is not cached again as a replica still has it.
+     * Exceptions of the loader are passed through and nothing is cached.
+     */
+    public ItemWithBookingResponse get(Integer itemId, Supplier<ItemWithBookingResponse> loader) {
+        return cache.get(new Key(itemId, false),
+                key -> readYourWrites.onPrimary(() -> readOnly.execute(status -> loader.get())));
+    }
+
+    /**
+     * Returns the owner view. Its loader only adds last and next booking to the other view,
+     * so it runs without a transaction of its own.
+     */
+    public ItemWithBookingResponse getForOwner(Integer itemId, Supplier<ItemWithBookingResponse> loader) {
+        return cache.get(new Key(itemId, true), key -> loader.get());
+    }
+
+    public void evict(Integer itemId) {
+        TransactionUtils.afterCommit(() -> cache.invalidateAll(List.of(new Key(itemId, false), new Key(itemId, true))));
+    }
+
+    /**
+     * Used when a user is deleted: the cascade removes their items, bookings and comments everywhere.
+     */
+    public void evictAll() {
+        TransactionUtils.afterCommit(cache::invalidateAll);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class Key {
+        private final Integer itemId;
+        private final boolean owner;
+    }
+
+    private static final class UntilNextBooking implements Expiry<Key, ItemWithBookingResponse> {
+        private final long timeToLive;
+
+        private UntilNextBooking(long timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, ItemWithBookingResponse item, long currentTime) {
+            BookingShortResponse next = item.getNextBooking();
+            if (next == null) {
+                return timeToLive;
+            }
+
+            long untilStart = Duration.between(LocalDateTime.now(), next.getStart()).toNanos();
+            return Math.max(0, Math.min(timeToLive, untilStart));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, ItemWithBookingResponse item, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, item, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, ItemWithBookingResponse item, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.item.dto.ItemResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.utils.ItemMapper;
+import ru.practicum.shareit.utils.KeysetBatches;
+import ru.practicum.shareit.utils.TransactionUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-process replacement for {@link ItemRepository#searchAvailable}. Every available item is
+ * indexed by all lower-cased substrings of its name and description up to {@link #GRAM} characters,
+ * so a query is an intersection of int posting lists followed by a substring check of the candidates.
+ * Results and ordering are the same as the database query.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final ReadYourWrites readYourWrites;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Map<Integer, ItemResponse> items = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           ReadYourWrites readYourWrites,
+                           @Value("${shareit.search.in-memory.enabled:false}") boolean enabled,
+                           @Value("${shareit.search.in-memory.batch-size:1000}") int batchSize) {
+        this.itemRepository = itemRepository;
+        this.readYourWrites = readYourWrites;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Keeps only the best {@code offset + limit} matches in a bounded heap while the read lock is held,
+     * so a broad query neither sorts nor buffers every candidate and writers wait for one scan only.
+     */
+    public List<ItemResponse> search(String text, int offset, int limit) {
+        String query = text.toLowerCase();
+        int keep = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        if (keep == 0) {
+            return List.of();
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.min(keep, 64), Comparator.reverseOrder());
+        lock.readLock().lock();
+        try {
+            Postings candidates = candidates(query);
+            for (int i = 0; i < candidates.size(); i++) {
+                ItemResponse item = items.get(candidates.get(i));
+                int rank = rank(item, query);
+                // candidates come in id order, so an equal rank never beats a match already kept
+                if (rank < 4 && (best.size() < keep || rank < best.peek().rank)) {
+                    if (best.size() == keep) {
+                        best.poll();
+                    }
+                    best.add(new Match(rank, item));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return best.stream()
+                .sorted()
+                .skip(offset)
+                .map(match -> match.item)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Indexes the item, or drops it if it is no longer available, once the surrounding transaction commits.
+     */
+    public void update(Item item) {
+        if (!enabled) {
+            return;
+        }
+
+        ItemResponse response = ItemMapper.mapToResponse(item);
+        TransactionUtils.afterCommit(() -> write(() -> {
+            remove(response.getId());
+            if (Boolean.TRUE.equals(response.getAvailable())) {
+                add(response);
+            }
+        }));
+    }
+
+    public void delete(Integer itemId) {
+        if (enabled) {
+            TransactionUtils.afterCommit(() -> write(() -> remove(itemId)));
+        }
+    }
+
+    /**
+     * Items of a deleted user are removed by the database cascade, so they are dropped here as well.
+     */
+    public void deleteByOwner(Integer ownerId) {
+        if (enabled) {
+            TransactionUtils.afterCommit(() -> write(() -> items.values().stream()
+                    .filter(item -> item.getOwnerId().equals(ownerId))
+                    .map(ItemResponse::getId)
+                    .collect(Collectors.toList())
+                    .forEach(this::remove)));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        write(() -> {
+            items.clear();
+            postings.clear();
+
+            readYourWrites.onPrimary(() -> KeysetBatches.forEach(itemRepository::findItemsByIdGreaterThanOrderByIdAsc,
+                    Item::getId, batchSize, batch -> batch.stream()
+                            .filter(Item::getAvailable)
+                            .forEach(item -> add(ItemMapper.mapToResponse(item)))));
+        });
+        log.info("item search index built for {} items", items.size());
+    }
+
+    private Postings candidates(String query) {
+        if (query.length() <= GRAM) {
+            Postings exact = postings.get(query);
+            return exact == null ? new Postings() : exact;
+        }
+
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            Postings list = postings.get(query.substring(i, i + GRAM));
+            if (list == null) {
+                return new Postings();
+            }
+            lists.add(list);
+        }
+
+        lists.sort(Comparator.comparingInt(Postings::size));
+        Postings result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size() > 0; i++) {
+            result = result.intersect(lists.get(i));
+        }
+        return result;
+    }
+
+    private static int rank(ItemResponse item, String query) {
+        String name = item.getName().toLowerCase();
+        if (name.equals(query)) {
+            return 0;
+        }
+        if (name.startsWith(query)) {
+            return 1;
+        }
+        if (name.contains(query)) {
+            return 2;
+        }
+        return item.getDescription().toLowerCase().contains(query) ? 3 : 4;
+    }
+
+    private void add(ItemResponse item) {
+        items.put(item.getId(), item);
+        grams(item).forEach(gram -> postings.computeIfAbsent(gram, key -> new Postings()).add(item.getId()));
+    }
+
+    private void remove(Integer itemId) {
+        ItemResponse item = items.remove(itemId);
+        if (item == null) {
+            return;
+        }
+
+        for (String gram : grams(item)) {
+            Postings list = postings.get(gram);
+            list.remove(itemId);
+            if (list.size() == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(ItemResponse item) {
+        Set<String> grams = new HashSet<>();
+        for (String text : List.of(item.getName().toLowerCase(), item.getDescription().toLowerCase())) {
+            for (int i = 0; i < text.length(); i++) {
+                for (int length = 1; length <= GRAM && i + length <= text.length(); length++) {
+                    grams.add(text.substring(i, i + length));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sorted, growable array of item ids.
+     */
+    static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        Postings intersect(Postings other) {
+            Postings result = new Postings();
+            result.ids = new int[Math.max(1, Math.min(size, other.size))];
+
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (ids[i] > other.ids[j]) {
+                    j++;
+                } else {
+                    result.ids[result.size++] = ids[i];
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+
+        int get(int index) {
+            return ids[index];
+        }
+    }
+
+    /**
+     * A matching item with its rank, ordered like the database query: by rank, then by id.
+     */
+    private static final class Match implements Comparable<Match> {
+        private final int rank;
+        private final ItemResponse item;
+
+        Match(int rank, ItemResponse item) {
+            this.rank = rank;
+            this.item = item;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            int byRank = Integer.compare(rank, other.rank);
+            return byRank != 0 ? byRank : Integer.compare(item.getId(), other.item.getId());
+        }
+    }
+}
@@ -4,9 +4,10 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.Status;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingTimeline;
 import ru.practicum.shareit.booking.utils.BookingMapper;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.exception.exceptions.NotOwnerException;
@@ -21,51 +22,61 @@ import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
     private final RequestRepository requestRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final BookingTimeline bookingTimeline;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCache itemCache;
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ItemWithBookingResponse getById(Integer id, Integer userId) {
         log.info("getById item method");
 
-        ItemWithBookingResponse item = ItemMapper.mapToBookingResponse(itemRepository.findById(id).orElseThrow(NotFoundException::new));
-        LocalDateTime current = LocalDateTime.now();
-
-        if (item.getOwnerId().equals(userId)) {
-            Optional<Booking> last = bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(current, Status.APPROVED, id);
-            Optional<Booking> next = bookingRepository.findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(current, Status.APPROVED, id);
+        // cache hits must not open a transaction, misses are loaded in one by the cache
+        ItemWithBookingResponse item = itemCache.get(id, () -> {
+            ItemWithBookingResponse loaded = ItemMapper.mapToBookingResponse(itemRepository.findById(id).orElseThrow(NotFoundException::new));
+            loaded.setComments(commentRepository.findCommentsByItemId(id));
+            return loaded;
+        });
 
-            last.ifPresent(booking -> item.setLastBooking(BookingMapper.mapToShortResponse(booking)));
-            next.ifPresent(booking -> item.setNextBooking(BookingMapper.mapToShortResponse(booking)));
+        if (!item.getOwnerId().equals(userId)) {
+            return item;
         }
 
-        item.setComments(commentRepository.findCommentsByItemId(id).stream()
-                .map(ItemMapper::mapToCommentResponse)
-                .collect(Collectors.toList()));
+        return itemCache.getForOwner(id, () -> {
+            LocalDateTime current = LocalDateTime.now();
+            ItemWithBookingResponse owned = new ItemWithBookingResponse(item.getId(), item.getName(), item.getDescription(),
+                    item.getAvailable(), item.getOwnerId(), null, null, item.getComments());
 
-        return item;
+            bookingTimeline.findLast(id, current).ifPresent(owned::setLastBooking);
+            bookingTimeline.findNext(id, current).ifPresent(owned::setNextBooking);
+
+            return owned;
+        });
     }
 
     @Override
     public List<ItemWithBookingResponse> getByOwner(Integer owner, Integer from, Integer size) {
         log.info("getByOwner item method");
 
-        if (userRepository.findById(owner).isEmpty()) {
+        if (!userIdCache.exists(owner)) {
             throw new NotOwnerException();
         }
 
@@ -74,25 +85,26 @@ public class ItemServiceImpl implements ItemService {
         }
 
         PageRequest page = PageRequest.of(from / size, size);
-        List<ItemWithBookingResponse> items = itemRepository.findItemsByOwnerIdOrderByIdAsc(owner, page).stream()
-                .map(ItemMapper::mapToBookingResponse)
-                .collect(Collectors.toList());
+        Map<Integer, ItemWithBookingResponse> items = itemRepository.findOwnerItems(owner, page).stream()
+                .collect(Collectors.toMap(ItemWithBookingResponse::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
 
-        LocalDateTime current = LocalDateTime.now();
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        for (ItemWithBookingResponse item : items) {
-            Optional<Booking> last = bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(current, Status.APPROVED, item.getId());
-            Optional<Booking> next = bookingRepository.findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(current, Status.APPROVED, item.getId());
+        LocalDateTime current = LocalDateTime.now();
+        Set<Integer> itemIds = items.keySet();
 
-            last.ifPresent(booking -> item.setLastBooking(BookingMapper.mapToShortResponse(booking)));
-            next.ifPresent(booking -> item.setNextBooking(BookingMapper.mapToShortResponse(booking)));
+        bookingRepository.findLastBookings(itemIds, current)
+                .forEach(booking -> items.get(booking.getItem().getId()).setLastBooking(BookingMapper.mapToShortResponse(booking)));
+        bookingRepository.findNextBookings(itemIds, current)
+                .forEach(booking -> items.get(booking.getItem().getId()).setNextBooking(BookingMapper.mapToShortResponse(booking)));
 
-            item.setComments(commentRepository.findCommentsByItemId(item.getId()).stream()
-                    .map(ItemMapper::mapToCommentResponse)
-                    .collect(Collectors.toList()));
-        }
+        items.values().forEach(item -> item.setComments(new ArrayList<>()));
+        commentRepository.findCommentsByItemIds(itemIds)
+                .forEach(comment -> items.get(comment.getItemId()).getComments().add(ItemMapper.mapToCommentResponse(comment)));
 
-        return items;
+        return new ArrayList<>(items.values());
     }
 
     @Override
@@ -108,19 +120,24 @@ public class ItemServiceImpl implements ItemService {
         }
 
         PageRequest page = PageRequest.of(from / size, size);
-        return itemRepository.findItemsByNameOrDescriptionContainsIgnoreCaseAndAvailableTrue(text, text, page).stream()
-                .map(ItemMapper::mapToResponse)
-                .collect(Collectors.toList());
+        if (itemSearchIndex.isEnabled()) {
+            return itemSearchIndex.search(text, (int) page.getOffset(), size);
+        }
+
+        return itemRepository.searchAvailable(text, page);
     }
 
     @Override
+    @Transactional
     public ItemResponse create(CreateItemRequest request, Integer ownerId) {
         log.info("create item method");
 
         Item item = ItemMapper.mapFromRequest(request);
 
-        User user = userRepository.findById(ownerId).orElseThrow(NotOwnerException::new);
-        item.setOwner(user);
+        if (!userIdCache.exists(ownerId)) {
+            throw new NotOwnerException();
+        }
+        item.setOwner(userRepository.getReferenceById(ownerId));
 
         Integer requestId = request.getRequestId();
         if (requestId != null) {
@@ -134,11 +151,16 @@ public class ItemServiceImpl implements ItemService {
         } else {
             item.setRequest(null);
         }
-        return ItemMapper.mapToResponse(itemRepository.save(item));
+
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.update(saved);
+
+        return ItemMapper.mapToResponse(saved);
     }
 
 
     @Override
+    @Transactional
     public ItemResponse update(UpdateItemRequest request, Integer itemId, Integer ownerId) {
         log.info("update item method");
 
@@ -160,17 +182,26 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(request.getAvailable());
         }
 
-        return ItemMapper.mapToResponse(itemRepository.save(item));
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.update(saved);
+        itemCache.evict(itemId);
+
+        return ItemMapper.mapToResponse(saved);
     }
 
     @Override
+    @Transactional
     public void delete(Integer id) {
         log.info("delete item method");
 
         itemRepository.deleteById(id);
+        bookingTimeline.evict(id);
+        itemSearchIndex.delete(id);
+        itemCache.evict(id);
     }
 
     @Override
+    @Transactional
     public CommentResponse comment(Integer itemId, Integer userId, CommentRequest comment) {
         Item item = itemRepository.findById(itemId).orElseThrow(NotFoundException::new);
         User user = userRepository.findById(userId).orElseThrow(NotFoundException::new);
@@ -184,6 +215,9 @@ public class ItemServiceImpl implements ItemService {
         newComment.setAuthor(user);
         newComment.setText(comment.getText());
         newComment.setCreated(LocalDateTime.now());
-        return ItemMapper.mapToCommentResponse(commentRepository.save(newComment));
+        Comment saved = commentRepository.save(newComment);
+        itemCache.evict(itemId);
+
+        return ItemMapper.mapToCommentResponse(saved);
     }
 }
@@ -49,6 +49,15 @@ public class ItemMapper {
         );
     }
 
+    public CommentResponse mapToCommentResponse(ItemCommentView comment) {
+        return new CommentResponse(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
+
     public ItemInfoForRequests mapToInfo(Item item) {
         return new ItemInfoForRequests(
                 item.getId(),
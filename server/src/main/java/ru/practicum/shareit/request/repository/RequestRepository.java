@@ -1,6 +1,5 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.request.model.Request;
@@ -11,5 +10,5 @@ import java.util.List;
 public interface RequestRepository extends JpaRepository<Request, Integer> {
     List<Request> findRequestByRequestorOrderByCreatedDesc(User requestor);
 
-    Page<Request> findRequestByRequestorNotOrderByCreatedDesc(User requestor, Pageable page);
+    List<Request> findRequestByRequestorNotOrderByCreatedDesc(User requestor, Pageable page);
 }
\ No newline at end of file
@@ -4,8 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemInfoForRequests;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.utils.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponse;
 import ru.practicum.shareit.request.dto.ItemRequestWithItems;
@@ -14,24 +17,30 @@ import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.utils.ItemRequestMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 @Slf4j
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository requestRepository;
     private final UserRepository userRepository;
+    private final UserIdCache userIdCache;
     private final ItemRepository itemRepository;
 
     @Override
+    @Transactional
     public ItemRequestResponse create(ItemRequestDto requestDto, Integer requestorId) {
         log.info("create method requests");
 
         Request request = ItemRequestMapper.mapFromRequest(requestDto);
-        request.setRequestor(userRepository.findById(requestorId).orElseThrow(NotFoundException::new));
+        request.setRequestor(requestor(requestorId));
 
         return ItemRequestMapper.mapToResponse(requestRepository.save(request));
     }
@@ -40,38 +49,61 @@ public class RequestServiceImpl implements RequestService {
     public List<ItemRequestWithItems> getRequestsOwner(Integer requestorId) {
         log.info("getRequestsOwner method requests");
 
-        User requestor = userRepository.findById(requestorId).orElseThrow(NotFoundException::new);
-
-        return requestRepository.findRequestByRequestorOrderByCreatedDesc(requestor).stream()
-                .map(request -> ItemRequestMapper.mapToResponseWithItems(request, itemRepository.findItemsByRequestId(request.getId())))
-                .collect(Collectors.toList());
+        return mapToResponseWithItems(requestRepository.findRequestByRequestorOrderByCreatedDesc(requestor(requestorId)));
     }
 
     @Override
     public List<ItemRequestWithItems> getRequests(Integer from, Integer size, Integer userId) {
         log.info("getRequests method requests");
 
-        User user = userRepository.findById(userId).orElseThrow(NotFoundException::new);
+        User user = requestor(userId);
 
         if (from < 0 || size <= 0) {
             throw new IllegalArgumentException();
         }
 
         PageRequest page = PageRequest.of(from / size, size);
-        List<Request> requests = requestRepository.findRequestByRequestorNotOrderByCreatedDesc(user, page).getContent();
+        List<Request> requests = requestRepository.findRequestByRequestorNotOrderByCreatedDesc(user, page);
 
-        return requests.stream()
-                .map(request -> ItemRequestMapper.mapToResponseWithItems(request, itemRepository.findItemsByRequestId(request.getId())))
-                .collect(Collectors.toList());
+        return mapToResponseWithItems(requests);
     }
 
     @Override
     public ItemRequestWithItems getRequestById(Integer requestId, Integer userId) {
         log.info("getRequestsById method requests");
 
-        userRepository.findById(userId).orElseThrow(NotFoundException::new);
+        if (!userIdCache.exists(userId)) {
+            throw new NotFoundException();
+        }
 
         return ItemRequestMapper.mapToResponseWithItems(requestRepository.findById(requestId).orElseThrow(NotFoundException::new),
                 itemRepository.findItemsByRequestId(requestId));
     }
+
+    /**
+     * Requests only need the id of their requestor, so an unloaded reference is enough.
+     */
+    private User requestor(Integer userId) {
+        if (!userIdCache.exists(userId)) {
+            throw new NotFoundException();
+        }
+
+        return userRepository.getReferenceById(userId);
+    }
+
+    private List<ItemRequestWithItems> mapToResponseWithItems(List<Request> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, List<ItemInfoForRequests>> items = itemRepository.findItemsByRequestIdIn(requests.stream()
+                        .map(Request::getId)
+                        .collect(Collectors.toList())).stream()
+                .map(ItemMapper::mapToInfo)
+                .collect(Collectors.groupingBy(ItemInfoForRequests::getRequestId));
+
+        return requests.stream()
+                .map(request -> ItemRequestMapper.mapToResponseWithItemInfo(request, items.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.utils;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.item.dto.ItemInfoForRequests;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.utils.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -35,4 +36,13 @@ public class ItemRequestMapper {
                         .collect(Collectors.toList())
         );
     }
+
+    public ItemRequestWithItems mapToResponseWithItemInfo(Request request, List<ItemInfoForRequests> items) {
+        return new ItemRequestWithItems(
+                request.getId(),
+                request.getDescription(),
+                request.getCreated(),
+                items
+        );
+    }
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
@@ -7,5 +9,9 @@ import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findUserByEmail(String email);
+
+    boolean existsUserByEmail(String email);
+
+    Slice<User> findUsersByIdGreaterThanOrderByIdAsc(Integer id, Pageable page);
 }
 
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.KeysetBatches;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the emails of all users. A negative answer means the email is certainly free,
+ * a positive one has to be confirmed with {@link UserRepository#existsUserByEmail}. Emails that were
+ * changed or deleted stay in the filter and only cost an extra confirmation query. Until the startup
+ * pass over {@link UserRepository} finishes every email is reported as possibly taken.
+ */
+@Component
+@Slf4j
+public class EmailIndex {
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final int batchSize;
+    private final AtomicLongArray bits;
+    private final long size;
+    private final int hashes;
+    private volatile boolean ready;
+
+    public EmailIndex(UserRepository userRepository,
+                      ReadYourWrites readYourWrites,
+                      @Value("${shareit.email-index.expected-users:1000000}") int expectedUsers,
+                      @Value("${shareit.email-index.false-positive-rate:0.01}") double falsePositiveRate,
+                      @Value("${shareit.email-index.batch-size:1000}") int batchSize) {
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+        this.batchSize = batchSize;
+
+        long optimalSize = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((optimalSize + 63) / 64));
+        this.size = bits.length() * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) size / expectedUsers * Math.log(2)));
+    }
+
+    public boolean mightContain(String email) {
+        if (!ready) {
+            return true;
+        }
+
+        long hash = hash(email);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(first + (long) i * second, size);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String email) {
+        long hash = hash(email);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(first + (long) i * second, size);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long current = bits.get(index);
+            while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask)) {
+                current = bits.get(index);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long count = readYourWrites.onPrimary(() -> KeysetBatches.forEach(userRepository::findUsersByIdGreaterThanOrderByIdAsc,
+                User::getId, batchSize, batch -> batch.forEach(user -> add(user.getEmail()))));
+
+        ready = true;
+        log.info("email index built for {} users", count);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes followed by a murmur finalizer, split into two 32-bit hashes.
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.utils.TransactionUtils;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ids of users known to exist, kept as a bit set: ids are sequential, so a million users take
+ * about 125 KB. Unknown ids are checked in {@link UserRepository} and remembered when found.
+ * Only existence is cached, services that need the user itself still load it.
+ */
+@Component
+public class UserIdCache {
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long removals;
+
+    public UserIdCache(UserRepository userRepository, ReadYourWrites readYourWrites) {
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+    }
+
+    public boolean exists(Integer userId) {
+        if (userId == null || userId < 0) {
+            return false;
+        }
+
+        long seenRemovals;
+        lock.readLock().lock();
+        try {
+            if (ids.get(userId)) {
+                return true;
+            }
+            seenRemovals = removals;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!readYourWrites.onPrimary(() -> userRepository.existsById(userId))) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // a user deleted while we were reading must not be brought back
+            if (removals == seenRemovals) {
+                ids.set(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * Remembers the user once the surrounding transaction commits.
+     */
+    public void add(Integer userId) {
+        TransactionUtils.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                ids.set(userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Forgets the user right away and again after commit, so that lookups running
+     * in between cannot put it back.
+     */
+    public void remove(Integer userId) {
+        clear(userId);
+        TransactionUtils.afterCommit(() -> clear(userId));
+    }
+
+    private void clear(Integer userId) {
+        if (userId == null || userId < 0) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            ids.clear(userId);
+            removals++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -2,21 +2,41 @@ package ru.practicum.shareit.user.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.BookingTimeline;
+import ru.practicum.shareit.exception.exceptions.DuplicateEmailException;
 import ru.practicum.shareit.exception.exceptions.EmptyEmailExeption;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.utils.UserMapper;
+import ru.practicum.shareit.utils.TransactionUtils;
 
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 @AllArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
+    private final BookingTimeline bookingTimeline;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemCache itemCache;
+    private final UserIdCache userIdCache;
+    private final EmailIndex emailIndex;
+    private final EntityManagerFactory entityManagerFactory;
 
     @Override
     public User getById(Integer id) {
@@ -32,6 +52,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public User create(UserRequest request) {
         log.info("create user method");
 
@@ -41,16 +62,24 @@ public class UserServiceImpl implements UserService {
             throw new EmptyEmailExeption("Email не может быть пустым");
         }
 
-        return userRepository.save(user);
+        checkEmailIsFree(user.getEmail());
+
+        User saved = saveCheckingEmail(user);
+        userIdCache.add(saved.getId());
+        emailIndex.add(saved.getEmail());
+
+        return saved;
     }
 
     @Override
+    @Transactional
     public User update(UserRequest request, Integer id) {
         log.info("update user method");
 
         User user = userRepository.findById(id).orElseThrow(NotFoundException::new);
 
-        if (request.getEmail() != null) {
+        if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
+            checkEmailIsFree(request.getEmail());
             user.setEmail(request.getEmail());
         }
 
@@ -58,13 +87,69 @@ public class UserServiceImpl implements UserService {
             user.setName(request.getName());
         }
 
-        return userRepository.save(user);
+        User saved = saveCheckingEmail(user);
+        userIdCache.add(saved.getId());
+        emailIndex.add(saved.getEmail());
+
+        return saved;
     }
 
     @Override
+    @Transactional
     public void delete(Integer id) {
         log.info("delete user method");
 
         userRepository.deleteById(id);
+        userIdCache.remove(id);
+        itemSearchIndex.deleteByOwner(id);
+        itemCache.evictAll();
+        bookingTimeline.evictAll();
+        evictCascadedEntities();
+    }
+
+    /**
+     * Most emails are rejected by the in-memory index, only possible duplicates are confirmed with a query.
+     * The unique constraint still guards against concurrent registrations with the same email.
+     */
+    private void checkEmailIsFree(String email) {
+        if (emailIndex.mightContain(email) && userRepository.existsUserByEmail(email)) {
+            throw new DuplicateEmailException();
+        }
+    }
+
+    /**
+     * Flushes right away so that a concurrent registration with the same email, which neither the index nor
+     * the query could see, fails here on the unique constraint and is reported like any other duplicate.
+     */
+    private User saveCheckingEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConstraint(e)) {
+                throw new DuplicateEmailException();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Besides the generated primary key, email is the only unique column of {@code users}, so a unique
+     * violation (SQLState 23505 on both H2 and Postgres) means the email is taken. Length and not-null
+     * violations keep their own SQLStates and are rethrown as they are.
+     */
+    private static boolean isEmailConstraint(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return cause instanceof SQLException && UNIQUE_VIOLATION.equals(((SQLException) cause).getSQLState());
+    }
+
+    /**
+     * Items and requests of the user are removed by the database cascade, which the second-level
+     * cache does not see, so their regions are dropped once the deletion is committed.
+     */
+    private void evictCascadedEntities() {
+        TransactionUtils.afterCommit(() -> {
+            entityManagerFactory.getCache().evict(Item.class);
+            entityManagerFactory.getCache().evict(Request.class);
+        });
     }
 }
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.utils;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@UtilityClass
+public class KeysetBatches {
+    /**
+     * Reads a whole table in id order, {@code batchSize} rows per query, continuing after the last id
+     * of the previous batch instead of using an offset.
+     *
+     * @param query rows with an id greater than the given one, ordered by id
+     * @return number of rows read
+     */
+    public <T> long forEach(BiFunction<Integer, Pageable, Slice<T>> query, Function<T, Integer> id,
+                            int batchSize, Consumer<List<T>> action) {
+        return forEachWhile(query, id, batchSize, batch -> {
+            action.accept(batch);
+            return true;
+        });
+    }
+
+    /**
+     * Same as {@link #forEach}, but stops after the first batch for which the action returns {@code false}.
+     */
+    public <T> long forEachWhile(BiFunction<Integer, Pageable, Slice<T>> query, Function<T, Integer> id,
+                                 int batchSize, Predicate<List<T>> action) {
+        Slice<T> slice;
+        int lastId = 0;
+        long count = 0;
+
+        do {
+            slice = query.apply(lastId, PageRequest.of(0, batchSize));
+            List<T> batch = slice.getContent();
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            count += batch.size();
+            lastId = id.apply(batch.get(batch.size() - 1));
+            if (!action.test(batch)) {
+                break;
+            }
+        } while (slice.hasNext());
+
+        return count;
+    }
+}
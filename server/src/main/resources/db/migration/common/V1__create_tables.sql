@@ -1,5 +1,3 @@
-drop table if exists users, requests, items, comments, bookings cascade;
-
 create table users (
     id integer generated by default as identity not null primary key,
     name varchar(50) not null,
@@ -38,7 +36,3 @@ create table bookings (
     booker_id integer references users(id) on delete cascade,
     status varchar(10) not null
 );
-
-
-
-
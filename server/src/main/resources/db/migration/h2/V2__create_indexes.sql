@@ -0,0 +1,8 @@
+create index items_owner_idx on items (owner_id, id);
+create index items_request_idx on items (request_id);
+create index requests_requestor_created_idx on requests (requestor_id, created desc);
+create index comments_item_idx on comments (item_id);
+create index bookings_booker_start_idx on bookings (booker_id, start_date desc, id desc);
+create index bookings_item_start_idx on bookings (item_id, start_date desc, id desc);
+create index bookings_item_status_start_idx on bookings (item_id, status, start_date);
+create index bookings_item_status_end_idx on bookings (item_id, status, end_date);
@@ -0,0 +1,8 @@
+create index concurrently if not exists items_owner_idx on items (owner_id, id);
+create index concurrently if not exists items_request_idx on items (request_id);
+create index concurrently if not exists requests_requestor_created_idx on requests (requestor_id, created desc);
+create index concurrently if not exists comments_item_idx on comments (item_id);
+create index concurrently if not exists bookings_booker_start_idx on bookings (booker_id, start_date desc, id desc);
+create index concurrently if not exists bookings_item_start_idx on bookings (item_id, start_date desc, id desc);
+create index concurrently if not exists bookings_item_status_start_idx on bookings (item_id, status, start_date);
+create index concurrently if not exists bookings_item_status_end_idx on bookings (item_id, status, end_date);
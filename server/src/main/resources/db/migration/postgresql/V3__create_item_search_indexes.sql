@@ -0,0 +1,4 @@
+create extension if not exists pg_trgm;
+
+create index concurrently if not exists items_name_trgm_idx on items using gin (lower(name) gin_trgm_ops) where available;
+create index concurrently if not exists items_description_trgm_idx on items using gin (lower(description) gin_trgm_ops) where available;
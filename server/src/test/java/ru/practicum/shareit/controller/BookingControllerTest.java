@@ -13,6 +13,7 @@ import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.exceptions.BookingOverlapException;
 import ru.practicum.shareit.item.dto.ItemResponse;
 import ru.practicum.shareit.user.dto.UserResponse;
 
@@ -160,6 +161,28 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.id", is(response.getId()), Integer.class));
     }
 
+    @Test
+    public void testCreateOverlap() throws Exception {
+        BookingRequest request = new BookingRequest(
+                1,
+                LocalDateTime.now().plusHours(1),
+                LocalDateTime.now().plusHours(2)
+        );
+
+        when(bookingService.create(any(), anyInt()))
+                .thenThrow(new BookingOverlapException());
+
+        mvc.perform(
+                        post("/bookings")
+                                .header("X-Sharer-User-Id", "1")
+                                .content(mapper.writeValueAsString(request))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void testApproveWithoutUserId() throws Exception {
         mvc.perform(
@@ -6,8 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.config.EtagConfig;
+import ru.practicum.shareit.exception.exceptions.DuplicateEmailException;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.model.User;
@@ -23,10 +27,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UserController.class)
+@Import(EtagConfig.class)
 public class UserControllerTest {
     @Autowired
     private ObjectMapper mapper;
@@ -119,6 +123,21 @@ public class UserControllerTest {
                 .andExpect(status().is4xxClientError());
     }
 
+    @Test
+    public void testCreateDuplicateEmail() throws Exception {
+        when(userService.create(any()))
+                .thenThrow(new DuplicateEmailException());
+
+        mvc.perform(
+                        post("/users")
+                                .content(mapper.writeValueAsString(new UserRequest("Name", "email@box.ru")))
+                                .characterEncoding(StandardCharsets.UTF_8)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .accept(MediaType.APPLICATION_JSON)
+                )
+                .andExpect(status().isConflict());
+    }
+
     @Test
     public void testGetById() throws Exception {
         when(userService.getById(any()))
@@ -133,6 +152,26 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.email", is(user.getEmail())));
     }
 
+    @Test
+    public void testGetByIdNotModified() throws Exception {
+        when(userService.getById(any()))
+                .thenReturn(user);
+
+        String etag = mvc.perform(
+                        get("/users/1")
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(
+                        get("/users/1")
+                                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                )
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     public void testGetAllEmpty() throws Exception {
         when(userService.getAll())
@@ -3,7 +3,11 @@ package ru.practicum.shareit.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -12,7 +16,11 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -52,4 +60,85 @@ public class BookingRepositoryTest {
 
         assertTrue(bookingRepository.findCompletedBooking(itemId, user2Id).isPresent());
     }
+
+    @Test
+    public void testFindLastAndNextBookings() {
+        User owner = userRepository.save(new User("owner", "owner@box.ru"));
+        User booker = userRepository.save(new User("booker", "booker@box.ru"));
+
+        Item item1 = new Item("item1", "description", true);
+        item1.setOwner(owner);
+        itemRepository.save(item1);
+        Item item2 = new Item("item2", "description", true);
+        item2.setOwner(owner);
+        itemRepository.save(item2);
+
+        LocalDateTime current = LocalDateTime.of(2024, 7, 10, 12, 0, 0);
+        saveBooking(item1, booker, current.minusDays(5), current.minusDays(4), Status.APPROVED);
+        Booking last = saveBooking(item1, booker, current.minusDays(2), current.minusDays(1), Status.APPROVED);
+        Booking next = saveBooking(item1, booker, current.plusDays(1), current.plusDays(2), Status.APPROVED);
+        saveBooking(item1, booker, current.plusDays(3), current.plusDays(4), Status.APPROVED);
+        saveBooking(item2, booker, current.plusHours(1), current.plusHours(2), Status.WAITING);
+
+        List<Booking> lastBookings = bookingRepository.findLastBookings(List.of(item1.getId(), item2.getId()), current);
+        List<Booking> nextBookings = bookingRepository.findNextBookings(List.of(item1.getId(), item2.getId()), current);
+
+        assertEquals(1, lastBookings.size());
+        assertEquals(last.getId(), lastBookings.get(0).getId());
+        assertEquals(1, nextBookings.size());
+        assertEquals(next.getId(), nextBookings.get(0).getId());
+    }
+
+    @Test
+    public void testFindOwnerBookingsKeyset() {
+        User owner = userRepository.save(new User("owner", "owner@box.ru"));
+        User booker = userRepository.save(new User("booker", "booker@box.ru"));
+
+        Item item = new Item("item", "description", true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        LocalDateTime current = LocalDateTime.of(2024, 7, 10, 12, 0, 0);
+        Booking first = saveBooking(item, booker, current.plusDays(1), current.plusDays(2), Status.WAITING);
+        Booking second = saveBooking(item, booker, current.plusDays(1), current.plusDays(3), Status.WAITING);
+        Booking third = saveBooking(item, booker, current.minusDays(3), current.minusDays(2), Status.APPROVED);
+        Booking fourth = saveBooking(item, owner, current.minusDays(5), current.minusDays(4), Status.REJECTED);
+
+        Slice<BookingResponse> page = bookingRepository.findOwnerBookings(owner.getId(), BookingState.ALL, current, null, 0, 2);
+        assertEquals(List.of(second.getId(), first.getId()), ids(page));
+        assertTrue(page.hasNext());
+
+        BookingResponse lastSeen = page.getContent().get(1);
+        page = bookingRepository.findOwnerBookings(owner.getId(), BookingState.ALL, current,
+                new BookingCursor(lastSeen.getStart(), lastSeen.getId()), 0, 2);
+        assertEquals(List.of(third.getId(), fourth.getId()), ids(page));
+        assertFalse(page.hasNext());
+
+        page = bookingRepository.findOwnerBookings(owner.getId(), BookingState.ALL, current, null, 2, 2);
+        assertEquals(2, page.getNumberOfElements());
+        assertFalse(page.hasNext());
+
+        page = bookingRepository.findOwnerBookings(owner.getId(), BookingState.FUTURE, current, null, 0, 10);
+        assertEquals(List.of(second.getId(), first.getId()), ids(page));
+
+        page = bookingRepository.findBookerBookings(booker.getId(), BookingState.PAST, current, null, 0, 10);
+        assertEquals(List.of(third.getId()), ids(page));
+        assertFalse(page.hasNext());
+
+        page = bookingRepository.findBookerBookings(booker.getId(), BookingState.WAITING, current,
+                new BookingCursor(second.getStart(), second.getId()), 0, 10);
+        assertEquals(List.of(first.getId()), ids(page));
+    }
+
+    private static List<Integer> ids(Slice<BookingResponse> bookings) {
+        return bookings.stream().map(BookingResponse::getId).collect(Collectors.toList());
+    }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        Booking booking = new Booking(start, end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
 }
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Calls the hot repository queries on a seeded dataset, captures the SQL Hibernate generates for them
+ * and fails when the EXPLAIN of any statement falls back to a full table scan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.repository.QueryPlanTest$CapturedSql")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryPlanTest {
+    private static final LocalDateTime CURRENT = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    void seed() {
+        // runs outside the test transactions, so the dataset is committed once and shared by all cases
+        jdbcTemplate.execute("insert into users (id, name, email) " +
+                "select x, 'user' || x, 'user' || x || '@mail.ru' from system_range(1, 200)");
+        jdbcTemplate.execute("insert into requests (id, description, requestor_id, created) " +
+                "select x, 'request' || x, mod(x, 200) + 1, dateadd(minute, x, timestamp '2024-01-01 00:00:00') from system_range(1, 1000)");
+        jdbcTemplate.execute("insert into items (id, name, description, available, owner_id, request_id) " +
+                "select x, 'item' || x, 'description' || x, true, mod(x, 200) + 1, case when mod(x, 2) = 0 then x / 2 end " +
+                "from system_range(1, 2000)");
+        jdbcTemplate.execute("insert into bookings (start_date, end_date, item_id, booker_id, status) " +
+                "select dateadd(hour, x, timestamp '2024-01-01 00:00:00'), dateadd(hour, x + 1, timestamp '2024-01-01 00:00:00'), " +
+                "mod(x, 2000) + 1, mod(x, 200) + 1, case when mod(x, 3) = 0 then 'WAITING' else 'APPROVED' end " +
+                "from system_range(1, 20000)");
+        jdbcTemplate.execute("insert into comments (text, item_id, author_id, created) " +
+                "select 'comment' || x, mod(x, 2000) + 1, mod(x, 200) + 1, timestamp '2024-01-01 00:00:00' from system_range(1, 5000)");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.execute("delete from comments");
+        jdbcTemplate.execute("delete from bookings");
+        jdbcTemplate.execute("delete from items");
+        jdbcTemplate.execute("delete from requests");
+        jdbcTemplate.execute("delete from users");
+    }
+
+    Stream<Arguments> hotQueries() {
+        BookingCursor cursor = new BookingCursor(CURRENT, 500);
+        return Stream.of(
+                query("booker listing", () -> bookingRepository.findBookerBookings(7, BookingState.ALL, CURRENT, null, 0, 10)),
+                query("booker listing by state after a cursor",
+                        () -> bookingRepository.findBookerBookings(7, BookingState.WAITING, CURRENT, cursor, 0, 10)),
+                query("owner listing", () -> bookingRepository.findOwnerBookings(7, BookingState.ALL, CURRENT, null, 0, 10)),
+                query("owner listing by state after a cursor",
+                        () -> bookingRepository.findOwnerBookings(7, BookingState.PAST, CURRENT, cursor, 0, 10)),
+                query("last bookings", () -> bookingRepository.findLastBookings(List.of(1, 2, 3), CURRENT)),
+                query("next bookings", () -> bookingRepository.findNextBookings(List.of(1, 2, 3), CURRENT)),
+                query("last booking of an item", () -> bookingRepository
+                        .findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(CURRENT, Status.APPROVED, 7)),
+                query("next booking of an item", () -> bookingRepository
+                        .findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(CURRENT, Status.APPROVED, 7)),
+                query("item timeline", () -> bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(7, Status.APPROVED, CURRENT)),
+                query("timeline warm-up item ids",
+                        () -> bookingRepository.findItemIdsByStatus(Status.APPROVED, 0, PageRequest.of(0, 100))),
+                query("timeline warm-up bookings",
+                        () -> bookingRepository.findBookingsByItemIdInAndStatusAndEndAfter(List.of(1, 2, 3), Status.APPROVED, CURRENT)),
+                query("overlap check", () -> bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(
+                        7, Status.APPROVED, CURRENT.plusDays(1), CURRENT)),
+                query("overlap check on approval", () -> bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(
+                        7, Status.APPROVED, CURRENT.plusDays(1), CURRENT, 1)),
+                query("completed booking", () -> bookingRepository.findCompletedBooking(7, 7)),
+                query("owner items", () -> itemRepository.findOwnerItems(7, PageRequest.of(0, 10))),
+                query("items of a request", () -> itemRepository.findItemsByRequestId(7)),
+                query("items by requests", () -> itemRepository.findItemsByRequestIdIn(List.of(1, 2, 3))),
+                query("requests of a user",
+                        () -> requestRepository.findRequestByRequestorOrderByCreatedDesc(userRepository.getReferenceById(7))),
+                query("comments of items", () -> commentRepository.findCommentsByItemIds(List.of(1, 2, 3)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("hotQueries")
+    public void testHotQueryUsesIndex(Runnable query) {
+        CapturedSql.clear();
+        query.run();
+
+        List<String> statements = CapturedSql.statements();
+        assertThat(statements, not(empty()));
+        for (String sql : statements) {
+            // parameters are left unbound: EXPLAIN only plans the statement
+            Object[] parameters = new Object[(int) sql.chars().filter(c -> c == '?').count()];
+            String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, parameters);
+
+            assertThat(plan, not(containsString("tableScan")));
+        }
+    }
+
+    private static Arguments query(String name, Runnable query) {
+        return Arguments.of(Named.of(name, query));
+    }
+
+    /**
+     * Records every statement Hibernate prepares; registered by class name, hence static state.
+     */
+    public static class CapturedSql implements StatementInspector {
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        static List<String> statements() {
+            synchronized (STATEMENTS) {
+                return new ArrayList<>(STATEMENTS);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,19 +12,23 @@ import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.exceptions.BookingOverlapException;
 import ru.practicum.shareit.item.dto.CreateItemRequest;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 public class BookingServiceImplIntegrationTest {
     @Autowired
@@ -31,6 +37,8 @@ public class BookingServiceImplIntegrationTest {
     private ItemService itemService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private UserRequest ur;
     private UserRequest ur2;
@@ -56,10 +64,12 @@ public class BookingServiceImplIntegrationTest {
                 null
         );
 
+        // listings are read straight from the database, which keeps microseconds only
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         br = new BookingRequest(
                 1,
-                LocalDateTime.now().minusHours(1),
-                LocalDateTime.now()
+                now.minusHours(1),
+                now
         );
     }
 
@@ -93,6 +103,21 @@ public class BookingServiceImplIntegrationTest {
         assertThat(Status.APPROVED, equalTo(booking.getStatus()));
     }
 
+    @Test
+    public void testApproveOverlap() {
+        int userId = userService.create(ur).getId();
+        int userId2 = userService.create(ur2).getId();
+        itemService.create(ir, userId);
+
+        BookingResponse first = bookingService.create(br, userId2);
+        BookingResponse second = bookingService.create(br, userId2);
+
+        bookingService.approve(userId, first.getId(), true);
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(br, userId2));
+        assertThrows(BookingOverlapException.class, () -> bookingService.approve(userId, second.getId(), true));
+    }
+
     @Test
     @Transactional
     public void testGetById() {
@@ -120,7 +145,7 @@ public class BookingServiceImplIntegrationTest {
 
         BookingResponse booking = bookingService.create(br, userId2);
 
-        List<BookingResponse> bookings = bookingService.getAllByBooker(userId2, "ALL", 0, 10);
+        List<BookingResponse> bookings = bookingService.getAllByBooker(userId2, "ALL", 0, 10, null);
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking, equalTo(bookings.get(0)));
@@ -134,9 +159,67 @@ public class BookingServiceImplIntegrationTest {
         int itemId = itemService.create(ir, userId).getId();
 
         BookingResponse booking = bookingService.create(br, userId2);
-        List<BookingResponse> bookings = bookingService.getAllByOwner(userId, "ALL", 0, 10);
+        List<BookingResponse> bookings = bookingService.getAllByOwner(userId, "ALL", 0, 10, null);
 
         assertThat(1, equalTo(bookings.size()));
         assertThat(booking, equalTo(bookings.get(0)));
     }
+
+    @Test
+    @Transactional
+    public void testListStatementCount() {
+        int userId = userService.create(ur).getId();
+        int userId2 = userService.create(ur2).getId();
+        itemService.create(ir, userId);
+        for (int i = 0; i < 3; i++) {
+            bookingService.create(br, userId2);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // users created in this never committed transaction reach the user id cache only on their first
+        // existence check: the booker is checked here, the owner already was when its item was created
+        statistics.clear();
+        assertThat(bookingService.getAllByBooker(userId2, "ALL", 0, 2, null).size(), equalTo(2));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+
+        statistics.clear();
+        assertThat(bookingService.getAllByOwner(userId, "WAITING", 0, 2, null).size(), equalTo(2));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testListingLoadsItemAndBookerWithBookings() {
+        int userId = userService.create(ur).getId();
+        int userId2 = userService.create(ur2).getId();
+        int userId3 = userService.create(new UserRequest("User3", "mail3@mail.ru")).getId();
+        itemService.create(ir, userId);
+        itemService.create(new CreateItemRequest("Item2", "Description2", true, null), userId);
+
+        bookingService.create(br, userId2);
+        bookingService.create(br, userId3);
+        bookingService.create(new BookingRequest(2, br.getStart(), br.getEnd()), userId2);
+        int bookingId = bookingService.create(new BookingRequest(2, br.getStart(), br.getEnd()), userId3).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<BookingResponse> bookings = bookingService.getAllByOwner(userId, "ALL", 0, 10, null);
+        assertThat(bookings.size(), equalTo(4));
+        assertThat(statistics.getEntityFetchCount(), equalTo(0L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+
+        statistics.clear();
+        bookings = bookingService.getAllByBooker(userId2, "ALL", 0, 10, null);
+        assertThat(bookings.size(), equalTo(2));
+        assertThat(statistics.getEntityFetchCount(), equalTo(0L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+
+        statistics.clear();
+        BookingResponse booking = bookingService.getById(bookingId, userId);
+        assertThat(booking.getItem().getName(), equalTo("Item2"));
+        assertThat(booking.getBooker().getId(), equalTo(userId3));
+        assertThat(statistics.getEntityFetchCount(), equalTo(0L));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
 }
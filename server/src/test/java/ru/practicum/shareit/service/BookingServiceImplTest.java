@@ -6,21 +6,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.service.BookingTimeline;
 import ru.practicum.shareit.booking.utils.BookingMapper;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.exception.exceptions.BookingOverlapException;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.exception.exceptions.StatusException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemCache;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,7 +34,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +44,15 @@ public class BookingServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdCache userIdCache;
+    @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private BookingTimeline bookingTimeline;
+    @Mock
+    private ReadYourWrites readYourWrites;
+    @Mock
+    private ItemCache itemCache;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private Booking booking;
@@ -185,6 +199,47 @@ public class BookingServiceImplTest {
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
     }
 
+    @Test
+    public void testCreateOverlap() {
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingTimeline.overlaps(anyInt(), any(), any())).thenReturn(true);
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(true);
+
+        BookingRequest br = new BookingRequest(
+                1,
+                LocalDateTime.of(2024, 7, 8,10, 0, 0),
+                LocalDateTime.of(2024, 7, 8,11, 0, 0)
+        );
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.create(br, booker.getId()));
+
+        verify(userRepository, never()).findById(anyInt());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    public void testCreateStaleTimelineOverlap() {
+        when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
+        when(bookingTimeline.overlaps(anyInt(), any(), any())).thenReturn(true);
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(anyInt(), any(), any(), any()))
+                .thenReturn(false);
+        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        BookingRequest br = new BookingRequest(
+                1,
+                LocalDateTime.of(2024, 7, 8,10, 0, 0),
+                LocalDateTime.of(2024, 7, 8,11, 0, 0)
+        );
+
+        BookingResponse saved = bookingService.create(br, booker.getId());
+
+        assertEquals(booking.getId(), saved.getId());
+        verify(bookingTimeline).evict(item.getId());
+    }
+
     @Test
     public void testApproveBookingNotFound() {
         when(bookingRepository.findById(anyInt())).thenReturn(Optional.empty());
@@ -205,6 +260,43 @@ public class BookingServiceImplTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    public void testApprove() {
+        when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
+        when(itemRepository.findItemForUpdate(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        BookingResponse response = bookingService.approve(owner.getId(), booking.getId(), true);
+
+        assertEquals(Status.APPROVED, response.getStatus());
+        verify(bookingTimeline).update(booking);
+    }
+
+    @Test
+    public void testApproveOverlap() {
+        when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
+        when(itemRepository.findItemForUpdate(anyInt())).thenReturn(Optional.of(item));
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfterAndIdNot(anyInt(), any(), any(), any(), anyInt()))
+                .thenReturn(true);
+
+        assertThrows(BookingOverlapException.class,
+                () -> bookingService.approve(owner.getId(), booking.getId(), true));
+
+        verify(bookingRepository, never()).save(any());
+        verify(bookingTimeline, never()).update(any());
+    }
+
+    @Test
+    public void testRejectSkipsOverlapCheck() {
+        when(bookingRepository.findById(anyInt())).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        BookingResponse response = bookingService.approve(owner.getId(), booking.getId(), false);
+
+        assertEquals(Status.REJECTED, response.getStatus());
+        verify(itemRepository, never()).findItemForUpdate(anyInt());
+    }
+
     @Test
     public void testApproveStatusNotWaiting() {
         booking.setStatus(Status.APPROVED);
@@ -265,287 +357,251 @@ public class BookingServiceImplTest {
 
     @Test
     public void testGetAllByBookerUserNotFound() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
         assertThrows(NotFoundException.class,
-                () -> bookingService.getAllByBooker(99, "ALL", 0, 10));
+                () -> bookingService.getAllByBooker(99, "ALL", 0, 10, null));
     }
 
     @Test
     public void testGetAllByBookerFromSizeFailed() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getAllByBooker(booker.getId(), "ALL", -1, 10));
+                () -> bookingService.getAllByBooker(booker.getId(), "ALL", -1, 10, null));
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getAllByBooker(booker.getId(), "ALL", -1, 0));
+                () -> bookingService.getAllByBooker(booker.getId(), "ALL", -1, 0, null));
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getAllByBooker(booker.getId(), "ALL", 0, -1));
+                () -> bookingService.getAllByBooker(booker.getId(), "ALL", 0, -1, null));
     }
 
     @Test
     public void testGetUserBookingsUnknownStatus() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
 
         assertThrows(StatusException.class,
-                () -> bookingService.getAllByBooker(booker.getId(), "Unknown", 0, 10));
+                () -> bookingService.getAllByBooker(booker.getId(), "Unknown", 0, 10, null));
     }
 
     @Test
     public void testGetAllByBookerAll() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBooker_IdOrderByStartDesc(anyInt(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.ALL), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "ALL", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "ALL", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByBookerCurrent() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(anyInt(), any(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.CURRENT), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "CURRENT", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "CURRENT", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByBooker_IdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testAllByBookerPast() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.PAST), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "PAST", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "PAST", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByBooker_IdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testAllByBookerFuture() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBooker_IdAndStartAfterOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.FUTURE), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "FUTURE", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "FUTURE", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByBooker_IdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByBookerWaiting() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBooker_IdAndStatusOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.WAITING), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "WAITING", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "WAITING", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByBooker_IdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testAllByBookerRejected() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByBooker_IdAndStatusOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.REJECTED), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "REJECTED", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByBooker(booker.getId(), "REJECTED", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByBooker_IdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartBeforeAndEndAfterOrderByStartAsc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByBooker_IdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByOwnerUserNotFound() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
         assertThrows(NotFoundException.class,
-                () -> bookingService.getAllByOwner(99, "ALL", 0, 10));
+                () -> bookingService.getAllByOwner(99, "ALL", 0, 10, null));
     }
 
     @Test
     public void testGetAllByOwnerFromSizeFailed() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getAllByOwner(booker.getId(), "ALL", -1, 10));
+                () -> bookingService.getAllByOwner(booker.getId(), "ALL", -1, 10, null));
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getAllByOwner(booker.getId(), "ALL", -1, 0));
+                () -> bookingService.getAllByOwner(booker.getId(), "ALL", -1, 0, null));
 
         assertThrows(IllegalArgumentException.class,
-                () -> bookingService.getAllByOwner(booker.getId(), "ALL", 0, -1));
+                () -> bookingService.getAllByOwner(booker.getId(), "ALL", 0, -1, null));
     }
 
     @Test
     public void testGetAllByOwnerUnknownStatus() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
 
         assertThrows(StatusException.class,
-                () -> bookingService.getAllByOwner(booker.getId(), "Unknown", 0, 10));
+                () -> bookingService.getAllByOwner(booker.getId(), "Unknown", 0, 10, null));
     }
 
     @Test
     public void testGetAllByOwnerAll() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByItemOwnerIdOrderByStartDesc(anyInt(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findOwnerBookings(eq(booker.getId()), eq(BookingState.ALL), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "ALL", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "ALL", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByOwnerCurrent() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyInt(), any(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findOwnerBookings(eq(booker.getId()), eq(BookingState.CURRENT), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "CURRENT", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "CURRENT", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByOwnerPast() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findOwnerBookings(eq(booker.getId()), eq(BookingState.PAST), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "PAST", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "PAST", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByOwnerFuture() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findOwnerBookings(eq(booker.getId()), eq(BookingState.FUTURE), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "FUTURE", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "FUTURE", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStatusOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByOwnerWaiting() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findOwnerBookings(eq(booker.getId()), eq(BookingState.WAITING), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "WAITING", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "WAITING", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
-
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
     }
 
     @Test
     public void testGetAllByOwnerRejected() {
-        final Page<Booking> page = new PageImpl<>(List.of(booking));
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(booker));
-        when(bookingRepository.findBookingsByItemOwnerIdAndStatusOrderByStartDesc(anyInt(), any(), any())).thenReturn(page);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findOwnerBookings(eq(booker.getId()), eq(BookingState.REJECTED), any(), isNull(), eq(0), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
 
-        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "REJECTED", 0, 10).get(0);
+        BookingResponse saved = bookingService.getAllByOwner(booker.getId(), "REJECTED", 0, 10, null).get(0);
         BookingResponse expected = BookingMapper.mapToResponse(booking);
 
         assertEquals(expected.getId(), saved.getId());
         assertEquals(expected.getBooker().getId(), saved.getBooker().getId());
         assertEquals(expected.getItem().getId(), saved.getItem().getId());
+    }
+
+    @Test
+    public void testGetAllByBookerAfterCursor() {
+        LocalDateTime start = LocalDateTime.of(2024, 7, 8, 10, 0, 0);
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(bookingRepository.findBookerBookings(eq(booker.getId()), eq(BookingState.ALL), any(),
+                eq(new BookingCursor(start, 15)), eq(20), eq(10)))
+                .thenReturn(new SliceImpl<>(List.of(BookingMapper.mapToResponse(booking))));
+
+        List<BookingResponse> bookings = bookingService.getAllByBooker(booker.getId(), "ALL", 20, 10, "2024-07-08T10:00:00,15");
 
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdOrderByStartDesc(anyInt(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyInt(), any(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndEndBeforeOrderByStartDesc(anyInt(), any(), any());
-        verify(bookingRepository, never()).findBookingsByItemOwnerIdAndStartAfterOrderByStartDesc(anyInt(), any(), any());
+        assertEquals(1, bookings.size());
+        assertEquals(booking.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    public void testGetAllByOwnerInvalidCursor() {
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getAllByOwner(owner.getId(), "ALL", 0, 10, "yesterday"));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.getAllByOwner(owner.getId(), "ALL", 0, 10, "2024-07-08T10:00:00,abc"));
     }
 }
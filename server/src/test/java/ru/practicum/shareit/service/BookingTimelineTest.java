@@ -0,0 +1,196 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingShortResponse;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingTimeline;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingTimelineTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReadYourWrites readYourWrites;
+    private BookingTimeline bookingTimeline;
+    private Item item;
+    private User booker;
+    private LocalDateTime current;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), transactionManager);
+        bookingTimeline = new BookingTimeline(bookingRepository, readYourWrites, true, 10, 100);
+
+        booker = new User(2, "Booker", "booker@mail.ru");
+        item = new Item(1, "Item", "Description", true, new User(1, "User", "mail@mail.ru"), null);
+        current = LocalDateTime.now();
+    }
+
+    @Test
+    public void testLastAndNext() {
+        Booking longPast = booking(1, current.minusDays(10), current.plusDays(1));
+        Booking past = booking(2, current.minusDays(2), current.minusDays(1));
+        Booking next = booking(3, current.plusDays(2), current.plusDays(3));
+        Booking later = booking(4, current.plusDays(5), current.plusDays(6));
+        when(bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any()))
+                .thenReturn(List.of(later, next, longPast));
+        when(bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(), eq(Status.APPROVED), eq(item.getId())))
+                .thenReturn(Optional.of(longPast));
+
+        assertEquals(longPast.getId(), bookingTimeline.findLast(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+        assertEquals(next.getId(), bookingTimeline.findNext(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+        assertTrue(bookingTimeline.isBookedAt(item.getId(), current));
+        assertFalse(bookingTimeline.isBookedAt(item.getId(), current.plusDays(4)));
+        assertTrue(bookingTimeline.overlaps(item.getId(), current.plusDays(3).minusHours(1), current.plusDays(4)));
+        assertFalse(bookingTimeline.overlaps(item.getId(), current.plusDays(3), current.plusDays(5)));
+        assertTrue(bookingTimeline.findLast(item.getId(), current.minusDays(11)).isEmpty());
+        assertTrue(bookingTimeline.findNext(item.getId(), current.plusDays(5)).isEmpty());
+
+        verify(bookingRepository, times(1)).findBookingsByItemIdAndStatusAndEndAfter(anyInt(), any(), any());
+    }
+
+    @Test
+    public void testLoadKeepsOnlyLastEndedBooking() {
+        Booking past = booking(1, current.minusDays(2), current.minusDays(1));
+        Booking next = booking(2, current.plusDays(1), current.plusDays(2));
+        when(bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any()))
+                .thenReturn(List.of(next));
+        when(bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(), eq(Status.APPROVED), eq(item.getId())))
+                .thenReturn(Optional.of(past));
+
+        assertEquals(past.getId(), bookingTimeline.findLast(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+        assertEquals(next.getId(), bookingTimeline.findNext(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+    }
+
+    @Test
+    public void testOverlapsOnMissUsesRangeQuery() {
+        when(bookingRepository.existsByItemIdAndStatusAndStartBeforeAndEndAfter(item.getId(), Status.APPROVED,
+                current.plusDays(2), current.plusDays(1))).thenReturn(true);
+
+        assertTrue(bookingTimeline.overlaps(item.getId(), current.plusDays(1), current.plusDays(2)));
+        verify(bookingRepository, never()).findBookingsByItemIdAndStatusAndEndAfter(anyInt(), any(), any());
+    }
+
+    @Test
+    public void testUpdate() {
+        when(bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any())).thenReturn(List.of());
+        assertTrue(bookingTimeline.findNext(item.getId(), current).isEmpty());
+
+        Booking next = booking(1, current.plusDays(1), current.plusDays(2));
+        bookingTimeline.update(next);
+        assertEquals(next.getId(), bookingTimeline.findNext(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+
+        next.setStatus(Status.REJECTED);
+        bookingTimeline.update(next);
+        assertTrue(bookingTimeline.findNext(item.getId(), current).isEmpty());
+    }
+
+    @Test
+    public void testUpdateDropsEndedHistory() {
+        when(bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any())).thenReturn(List.of());
+        assertTrue(bookingTimeline.findLast(item.getId(), current).isEmpty());
+
+        Booking earlier = booking(1, current.minusDays(3), current.minusDays(2));
+        Booking past = booking(2, current.minusDays(2), current.minusDays(1));
+        Booking next = booking(3, current.plusDays(1), current.plusDays(2));
+        bookingTimeline.update(earlier);
+        bookingTimeline.update(past);
+        bookingTimeline.update(next);
+
+        assertEquals(past.getId(), bookingTimeline.findLast(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+        assertEquals(next.getId(), bookingTimeline.findNext(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+        // only the latest ended booking is kept, so nothing is left to answer for a time before it started
+        assertTrue(bookingTimeline.findLast(item.getId(), current.minusDays(2).minusHours(1)).isEmpty());
+    }
+
+    @Test
+    public void testLoadAndConsistency() {
+        Booking past = booking(1, current.minusDays(2), current.minusDays(1));
+        Booking next = booking(2, current.plusDays(1), current.plusDays(2));
+        when(bookingRepository.findItemIdsByStatus(eq(Status.APPROVED), eq(0), any()))
+                .thenReturn(new SliceImpl<>(List.of(item.getId())));
+        when(bookingRepository.findBookingsByItemIdInAndStatusAndEndAfter(eq(List.of(item.getId())), eq(Status.APPROVED), any()))
+                .thenReturn(List.of(next));
+        when(bookingRepository.findLastBookings(eq(List.of(item.getId())), any()))
+                .thenReturn(List.of(past));
+        when(bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(current, Status.APPROVED, item.getId()))
+                .thenReturn(Optional.of(past));
+        when(bookingRepository.findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(current, Status.APPROVED, item.getId()))
+                .thenReturn(Optional.empty());
+
+        bookingTimeline.load();
+
+        assertEquals(past.getId(), bookingTimeline.findLast(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+        assertFalse(bookingTimeline.isConsistent(item.getId(), current));
+        verify(bookingRepository, never()).findBookingsByItemIdAndStatusAndEndAfter(anyInt(), any(), any());
+    }
+
+    @Test
+    public void testLoadStopsAtMaximumBookings() {
+        bookingTimeline = new BookingTimeline(bookingRepository, readYourWrites, true, 1, 2);
+        when(bookingRepository.findItemIdsByStatus(eq(Status.APPROVED), eq(0), any()))
+                .thenReturn(new SliceImpl<>(List.of(item.getId()), PageRequest.of(0, 1), true));
+        when(bookingRepository.findBookingsByItemIdInAndStatusAndEndAfter(eq(List.of(item.getId())), eq(Status.APPROVED), any()))
+                .thenReturn(List.of(booking(1, current.plusDays(1), current.plusDays(2))));
+
+        bookingTimeline.load();
+
+        verify(bookingRepository, times(1)).findItemIdsByStatus(any(), anyInt(), any());
+        verify(bookingRepository, times(1)).findBookingsByItemIdInAndStatusAndEndAfter(any(), any(), any());
+    }
+
+    @Test
+    public void testEvictAll() {
+        when(bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any())).thenReturn(List.of());
+        assertTrue(bookingTimeline.findNext(item.getId(), current).isEmpty());
+
+        bookingTimeline.evictAll();
+        assertTrue(bookingTimeline.findNext(item.getId(), current).isEmpty());
+
+        verify(bookingRepository, times(2)).findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any());
+    }
+
+    @Test
+    public void testChangeDuringLoadIsNotCached() {
+        Booking next = booking(1, current.plusDays(1), current.plusDays(2));
+        when(bookingRepository.findBookingsByItemIdAndStatusAndEndAfter(eq(item.getId()), eq(Status.APPROVED), any()))
+                .thenAnswer(invocation -> {
+                    // approved and committed after the read took its snapshot
+                    bookingTimeline.update(next);
+                    return List.of();
+                })
+                .thenReturn(List.of(next));
+
+        assertTrue(bookingTimeline.findNext(item.getId(), current).isEmpty());
+        assertEquals(next.getId(), bookingTimeline.findNext(item.getId(), current).map(BookingShortResponse::getId).orElseThrow());
+    }
+
+    private Booking booking(Integer id, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, start, end, item, booker, Status.APPROVED);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.EmailIndex;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailIndexTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReadYourWrites readYourWrites;
+    private EmailIndex emailIndex;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), transactionManager);
+        emailIndex = new EmailIndex(userRepository, readYourWrites, 1000, 0.01, 2);
+    }
+
+    @Test
+    public void testEverythingMightExistBeforeRebuild() {
+        assertTrue(emailIndex.mightContain("email@box.ru"));
+    }
+
+    @Test
+    public void testRebuildReadsAllBatches() {
+        when(userRepository.findUsersByIdGreaterThanOrderByIdAsc(eq(0), any()))
+                .thenReturn(new SliceImpl<>(List.of(new User(1, "name1", "email1@box.ru"),
+                        new User(2, "name2", "email2@box.ru")), PageRequest.of(0, 2), true));
+        when(userRepository.findUsersByIdGreaterThanOrderByIdAsc(eq(2), any()))
+                .thenReturn(new SliceImpl<>(List.of(new User(3, "name3", "email3@box.ru")), PageRequest.of(0, 2), false));
+
+        emailIndex.rebuild();
+
+        assertTrue(emailIndex.mightContain("email1@box.ru"));
+        assertTrue(emailIndex.mightContain("email2@box.ru"));
+        assertTrue(emailIndex.mightContain("email3@box.ru"));
+        assertFalse(emailIndex.mightContain("email4@box.ru"));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        when(userRepository.findUsersByIdGreaterThanOrderByIdAsc(eq(0), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+        emailIndex.rebuild();
+
+        IntStream.range(0, 1000).forEach(i -> emailIndex.add("user" + i + "@box.ru"));
+
+        long falsePositives = IntStream.range(1000, 11000)
+                .filter(i -> emailIndex.mightContain("user" + i + "@box.ru"))
+                .count();
+
+        assertThat(falsePositives, lessThan(300L));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingShortResponse;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemWithBookingResponse;
+import ru.practicum.shareit.item.service.ItemCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemCacheTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemCache itemCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemCache = new ItemCache(transactionManager, new ReadYourWrites(Duration.ofSeconds(5), transactionManager), meterRegistry, 100, Duration.ofMinutes(10));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testReadThroughAndEvict() {
+        ItemWithBookingResponse item = itemCache.get(1, loader(null));
+
+        assertSame(item, itemCache.get(1, loader(null)));
+        assertEquals(1, loads.get());
+
+        itemCache.getForOwner(1, loader(null));
+        assertEquals(2, loads.get());
+
+        itemCache.evict(1);
+        itemCache.get(1, loader(null));
+        itemCache.getForOwner(1, loader(null));
+        assertEquals(4, loads.get());
+
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "hit").functionCounter().count());
+        assertEquals(4, meterRegistry.get("cache.gets").tag("cache", "items").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    public void testOwnerViewExpiresAtNextBookingStart() {
+        BookingShortResponse started = new BookingShortResponse(1, LocalDateTime.now().minusSeconds(1),
+                LocalDateTime.now().plusHours(1), 2);
+        BookingShortResponse later = new BookingShortResponse(2, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), 2);
+
+        itemCache.getForOwner(1, loader(started));
+        itemCache.getForOwner(1, loader(started));
+        assertEquals(2, loads.get());
+
+        itemCache.getForOwner(2, loader(later));
+        itemCache.getForOwner(2, loader(later));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        assertThrows(NotFoundException.class, () -> itemCache.get(1, () -> {
+            throw new NotFoundException();
+        }));
+
+        itemCache.get(1, loader(null));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testEvictAll() {
+        itemCache.get(1, loader(null));
+        itemCache.get(2, loader(null));
+
+        itemCache.evictAll();
+        itemCache.get(1, loader(null));
+        itemCache.get(2, loader(null));
+
+        assertEquals(4, loads.get());
+    }
+
+    private Supplier<ItemWithBookingResponse> loader(BookingShortResponse nextBooking) {
+        return () -> {
+            loads.incrementAndGet();
+            return new ItemWithBookingResponse(1, "Item", "Description", true, 1, null, nextBooking, List.of());
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.item.dto.ItemResponse;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReadYourWrites readYourWrites;
+    private ItemSearchIndex itemSearchIndex;
+    private User owner;
+    private User owner2;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), transactionManager);
+        itemSearchIndex = new ItemSearchIndex(itemRepository, readYourWrites, true, 10);
+
+        owner = new User(1, "User", "mail@mail.ru");
+        owner2 = new User(2, "User2", "mail2@mail.ru");
+    }
+
+    @Test
+    public void testRebuildAndSearch() {
+        when(itemRepository.findItemsByIdGreaterThanOrderByIdAsc(eq(0), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(
+                new Item(1, "Аккумуляторная дрель", "Дрель с зарядкой", true, owner, null),
+                new Item(2, "Дрель", "Простая дрель", true, owner, null),
+                new Item(3, "Отвертка", "Подходит к дрели", true, owner, null),
+                new Item(4, "Дрель ударная", "Сломана", false, owner, null),
+                new Item(5, "Дрелька", "Детская", true, owner, null)
+        )));
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(2, 5, 1, 3), ids(itemSearchIndex.search("ДРЕЛ", 0, 10)));
+        assertEquals(List.of(5, 1), ids(itemSearchIndex.search("дрел", 1, 2)));
+        assertEquals(List.of(1), ids(itemSearchIndex.search("с з", 0, 10)));
+        assertEquals(List.of(1, 3, 5), ids(itemSearchIndex.search("к", 0, 10)));
+        assertEquals(List.of(1, 3), ids(itemSearchIndex.search("к", 0, 2)));
+        assertEquals(List.of(2), ids(itemSearchIndex.search("дрел", 0, 1)));
+        assertEquals(List.of(3), ids(itemSearchIndex.search("дрел", 3, 10)));
+        assertTrue(itemSearchIndex.search("дрел", 4, 10).isEmpty());
+        assertTrue(itemSearchIndex.search("дрел", 0, 0).isEmpty());
+        assertTrue(itemSearchIndex.search("перфоратор", 0, 10).isEmpty());
+        assertTrue(itemSearchIndex.search("сломана", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        Item item = new Item(1, "Дрель", "Простая дрель", true, owner, null);
+        Item item2 = new Item(2, "Пила", "Ручная пила", true, owner2, null);
+
+        itemSearchIndex.update(item);
+        itemSearchIndex.update(item2);
+        assertEquals(List.of(1), ids(itemSearchIndex.search("дрель", 0, 10)));
+
+        item.setName("Перфоратор");
+        item.setDescription("Мощный");
+        itemSearchIndex.update(item);
+        assertTrue(itemSearchIndex.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1), ids(itemSearchIndex.search("мощ", 0, 10)));
+
+        item.setAvailable(false);
+        itemSearchIndex.update(item);
+        assertTrue(itemSearchIndex.search("мощ", 0, 10).isEmpty());
+
+        itemSearchIndex.deleteByOwner(owner2.getId());
+        assertTrue(itemSearchIndex.search("пила", 0, 10).isEmpty());
+
+        item.setAvailable(true);
+        itemSearchIndex.update(item);
+        itemSearchIndex.delete(item.getId());
+        assertTrue(itemSearchIndex.search("перфоратор", 0, 10).isEmpty());
+    }
+
+    private static List<Integer> ids(List<ItemResponse> items) {
+        return items.stream().map(ItemResponse::getId).collect(Collectors.toList());
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +10,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingTimeline;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
@@ -15,6 +18,7 @@ import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -22,7 +26,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.hibernate-statistics.enabled=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 public class ItemServiceImplIntegerationTest {
     @Autowired
@@ -31,6 +35,10 @@ public class ItemServiceImplIntegerationTest {
     private UserService userService;
     @Autowired
     private BookingService bookingService;
+    @Autowired
+    private BookingTimeline bookingTimeline;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private UserRequest ur;
     private UserRequest ur2;
@@ -109,9 +117,87 @@ public class ItemServiceImplIntegerationTest {
         int id1 = itemService.create(ir, user.getId()).getId();
         int id2 = itemService.create(ir2, user.getId()).getId();
 
-        List<ItemResponse> items = itemService.search("Item", 0, 10);
-        assertThat(items.size(), equalTo(1));
+        int id3 = itemService.create(new CreateItemRequest("Drill", "Not an item", true, null), user.getId()).getId();
+        itemService.create(new CreateItemRequest("Item3", "Description3", false, null), user.getId());
+
+        List<ItemResponse> items = itemService.search("item", 0, 10);
+        assertThat(items.size(), equalTo(3));
         assertThat(items.get(0).getId(), equalTo(id1));
+        assertThat(items.get(1).getId(), equalTo(id2));
+        assertThat(items.get(2).getId(), equalTo(id3));
+
+        items = itemService.search("DESCRIPTION2", 0, 10);
+        assertThat(items.size(), equalTo(1));
+        assertThat(items.get(0).getId(), equalTo(id2));
+    }
+
+    @Test
+    public void testSearchMatchesWildcardsLiterally() {
+        User user = userService.create(ur);
+        int percent = itemService.create(new CreateItemRequest("Shirt", "100% cotton", true, null), user.getId()).getId();
+        itemService.create(new CreateItemRequest("Shirt", "1000 cotton threads", true, null), user.getId());
+        int underscore = itemService.create(new CreateItemRequest("snake_case", "Naming", true, null), user.getId()).getId();
+        itemService.create(new CreateItemRequest("snakeXcase", "Naming", true, null), user.getId());
+
+        List<ItemResponse> items = itemService.search("100%", 0, 10);
+        assertThat(items.size(), equalTo(1));
+        assertThat(items.get(0).getId(), equalTo(percent));
+
+        items = itemService.search("e_c", 0, 10);
+        assertThat(items.size(), equalTo(1));
+        assertThat(items.get(0).getId(), equalTo(underscore));
+    }
+
+    @Test
+    public void testListStatementCount() {
+        User user = userService.create(ur);
+        for (int i = 0; i < 3; i++) {
+            itemService.create(ir, user.getId());
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // a full page must not add a count query: items, last bookings, next bookings, comments;
+        // the owner is known to the user id cache since it was created
+        statistics.clear();
+        assertThat(itemService.getByOwner(user.getId(), 0, 2).size(), equalTo(2));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(4L));
+
+        statistics.clear();
+        assertThat(itemService.search("item", 0, 2).size(), equalTo(2));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testConnectionPerServiceCall() {
+        User user = userService.create(ur);
+        User booker = userService.create(ur2);
+        int id = itemService.create(ir, user.getId()).getId();
+        bookingService.create(new BookingRequest(id, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2)),
+                booker.getId());
+        // a cold timeline is read from the primary on a connection of its own, so it is loaded beforehand
+        bookingTimeline.findNext(id, LocalDateTime.now());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        itemService.getById(id, user.getId());
+        assertThat(statistics.getConnectCount(), equalTo(1L));
+        assertThat(statistics.getFlushCount(), equalTo(0L));
+
+        // the second read is served from the item cache
+        statistics.clear();
+        itemService.getById(id, user.getId());
+        assertThat(statistics.getConnectCount(), equalTo(0L));
+
+        statistics.clear();
+        itemService.getByOwner(user.getId(), 0, 10);
+        assertThat(statistics.getConnectCount(), equalTo(1L));
+
+        statistics.clear();
+        itemService.update(new UpdateItemRequest("updName", null, null), id, user.getId());
+        assertThat(statistics.getConnectCount(), equalTo(1L));
+        assertThat(statistics.getTransactionCount(), equalTo(1L));
     }
 
     @Test
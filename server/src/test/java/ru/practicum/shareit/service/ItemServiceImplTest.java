@@ -6,12 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingTimeline;
 import ru.practicum.shareit.booking.utils.BookingMapper;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
 import ru.practicum.shareit.exception.exceptions.NotOwnerException;
@@ -21,20 +22,27 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.utils.ItemMapper;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -45,11 +53,19 @@ public class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdCache userIdCache;
+    @Mock
     private RequestRepository requestRepository;
     @Mock
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private BookingTimeline bookingTimeline;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemCache itemCache;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -58,6 +74,7 @@ public class ItemServiceImplTest {
     private Item item;
     private Booking booking;
     private Comment comment;
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
 
     @BeforeEach
     void setUp() {
@@ -95,18 +112,21 @@ public class ItemServiceImplTest {
 
     @Test
     public void testGetByIdNotFoundItem() {
+        loadThroughCache();
+
         assertThrows(NotFoundException.class,
                 () -> itemService.getById(1, 1));
 
-        verify(bookingRepository, never()).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
-        verify(bookingRepository, never()).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
+        verify(bookingTimeline, never()).findLast(anyInt(), any(LocalDateTime.class));
+        verify(bookingTimeline, never()).findNext(anyInt(), any(LocalDateTime.class));
         verify(commentRepository, never()).findCommentsByItemId(anyInt());
     }
 
     @Test
     public void testGetItemByIdNotOwner() {
+        loadThroughCache();
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(commentRepository.findCommentsByItemId(anyInt())).thenReturn(List.of(comment));
+        when(commentRepository.findCommentsByItemId(anyInt())).thenReturn(List.of(ItemMapper.mapToCommentResponse(comment)));
 
         ItemWithBookingResponse saveItem = itemService.getById(1, 2);
 
@@ -114,16 +134,17 @@ public class ItemServiceImplTest {
         assertNull(saveItem.getNextBooking());
         assertThat(1, equalTo(saveItem.getComments().size()));
 
-        verify(bookingRepository, never()).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
-        verify(bookingRepository, never()).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
+        verify(bookingTimeline, never()).findLast(anyInt(), any(LocalDateTime.class));
+        verify(bookingTimeline, never()).findNext(anyInt(), any(LocalDateTime.class));
         verify(commentRepository).findCommentsByItemId(anyInt());
     }
 
     @Test
     public void testGetItemById() {
+        loadThroughCache();
         when(itemRepository.findById(anyInt())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt())).thenReturn(Optional.of(booking));
+        when(bookingTimeline.findLast(anyInt(), any(LocalDateTime.class))).thenReturn(Optional.of(BookingMapper.mapToShortResponse(booking)));
+        when(bookingTimeline.findNext(anyInt(), any(LocalDateTime.class))).thenReturn(Optional.of(BookingMapper.mapToShortResponse(booking)));
         when(commentRepository.findCommentsByItemId(anyInt())).thenReturn(List.of());
 
         ItemWithBookingResponse savedItem = itemService.getById(1, 1);
@@ -139,12 +160,12 @@ public class ItemServiceImplTest {
 
     @Test
     public void testGetByOwnerNotFoundOwner() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
 
         assertThrows(NotOwnerException.class,
                 () -> itemService.getByOwner(10, 0, 10));
 
-        verify(itemRepository, never()).findItemsByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class));
+        verify(itemRepository, never()).findOwnerItems(anyInt(), any(Pageable.class));
         verify(bookingRepository, never()).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
         verify(bookingRepository, never()).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
         verify(commentRepository, never()).findCommentsByItemId(anyInt());
@@ -152,7 +173,7 @@ public class ItemServiceImplTest {
 
     @Test
     public void testGetByOwnerFromSize() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class,
                 () -> itemService.getByOwner(1, -2, 10));
@@ -162,7 +183,7 @@ public class ItemServiceImplTest {
                 () -> itemService.getByOwner(1, 1, -10));
 
 
-        verify(itemRepository, never()).findItemsByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class));
+        verify(itemRepository, never()).findOwnerItems(anyInt(), any(Pageable.class));
         verify(bookingRepository, never()).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
         verify(bookingRepository, never()).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
         verify(commentRepository, never()).findCommentsByItemId(anyInt());
@@ -170,41 +191,45 @@ public class ItemServiceImplTest {
 
     @Test
     public void testGetByOwnerEmpty() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
-        when(itemRepository.findItemsByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(Page.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(itemRepository.findOwnerItems(anyInt(), any(Pageable.class))).thenReturn(List.of());
 
         List<ItemWithBookingResponse> items = itemService.getByOwner(owner.getId(), 0, 10);
 
         assertEquals(0, items.size());
 
-        verify(bookingRepository, never()).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
-        verify(bookingRepository, never()).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
-        verify(commentRepository, never()).findCommentsByItemId(anyInt());
+        verify(bookingRepository, never()).findLastBookings(anyCollection(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findNextBookings(anyCollection(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findCommentsByItemIds(anyCollection());
     }
 
     @Test
     public void testGetByOwner() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(owner));
-        Page<Item> page = new PageImpl<>(List.of(item));
-        when(itemRepository.findItemsByOwnerIdOrderByIdAsc(anyInt(), any(Pageable.class))).thenReturn(page);
-        when(bookingRepository.findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt())).thenReturn(Optional.of(booking));
-        when(bookingRepository.findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt())).thenReturn(Optional.of(booking));
-        when(commentRepository.findCommentsByItemId(anyInt())).thenReturn(List.of(comment));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(itemRepository.findOwnerItems(anyInt(), any(Pageable.class))).thenReturn(List.of(ItemMapper.mapToBookingResponse(item)));
+        when(bookingRepository.findLastBookings(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of(booking));
+        when(bookingRepository.findNextBookings(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of());
+        when(commentRepository.findCommentsByItemIds(anyCollection())).thenReturn(List.of(projections.createProjection(
+                ItemCommentView.class, Map.of("itemId", item.getId(), "id", comment.getId(), "text", comment.getText(),
+                        "authorName", booker.getName()))));
 
         List<ItemWithBookingResponse> items = itemService.getByOwner(owner.getId(), 0, 10);
 
         assertEquals(1, items.size());
+        assertThat(items.get(0).getLastBooking(), equalTo(BookingMapper.mapToShortResponse(booking)));
+        assertNull(items.get(0).getNextBooking());
+        assertEquals(1, items.get(0).getComments().size());
 
-        verify(bookingRepository).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
-        verify(bookingRepository).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
-        verify(commentRepository).findCommentsByItemId(anyInt());
+        verify(bookingRepository, never()).findFirstByStartLessThanEqualAndStatusEqualsAndItemIdOrderByEndDesc(any(LocalDateTime.class), any(Status.class), anyInt());
+        verify(bookingRepository, never()).findFirstByStartAfterAndStatusEqualsAndItemIdOrderByStart(any(LocalDateTime.class), any(Status.class), anyInt());
+        verify(commentRepository, never()).findCommentsByItemId(anyInt());
     }
 
     @Test
     public void testSearchEmptyText() {
         assertEquals(0, itemService.search("", 0, 10).size());
 
-        verify(itemRepository, never()).findItemsByNameOrDescriptionContainsIgnoreCaseAndAvailableTrue(anyString(), anyString(), any());
+        verify(itemRepository, never()).searchAvailable(anyString(), any());
     }
 
     @Test
@@ -216,29 +241,38 @@ public class ItemServiceImplTest {
         assertThrows(IllegalArgumentException.class,
                 () -> itemService.search("item", -10, -10));
 
-        verify(itemRepository, never()).findItemsByNameOrDescriptionContainsIgnoreCaseAndAvailableTrue(anyString(), anyString(), any());
+        verify(itemRepository, never()).searchAvailable(anyString(), any());
     }
 
     @Test
     public void testSearchEmpty() {
-        when(itemRepository.findItemsByNameOrDescriptionContainsIgnoreCaseAndAvailableTrue(anyString(), anyString(), any()))
-                .thenReturn(Page.empty());
+        when(itemRepository.searchAvailable(anyString(), any()))
+                .thenReturn(List.of());
 
         assertEquals(0, itemService.search("item", 0, 10).size());
     }
 
     @Test
     public void testSearch() {
-        Page<Item> page = new PageImpl<>(List.of(item));
-
-        when(itemRepository.findItemsByNameOrDescriptionContainsIgnoreCaseAndAvailableTrue(anyString(), anyString(), any()))
-                .thenReturn(page);
+        when(itemRepository.searchAvailable(anyString(), any()))
+                .thenReturn(List.of(ItemMapper.mapToResponse(item)));
 
         List<ItemResponse> saved = itemService.search("item", 0, 10);
 
         assertEquals(1, saved.size());
-        assertEquals(page.getContent().get(0).getId(), saved.get(0).getId());
-        assertEquals(page.getContent().get(0).getName(), saved.get(0).getName());
+        assertEquals(item.getId(), saved.get(0).getId());
+        assertEquals(item.getName(), saved.get(0).getName());
+    }
+
+    @Test
+    public void testSearchInMemory() {
+        ItemResponse response = ItemMapper.mapToResponse(item);
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+        when(itemSearchIndex.search("item", 10, 10)).thenReturn(List.of(response));
+
+        assertEquals(List.of(response), itemService.search("item", 15, 10));
+
+        verify(itemRepository, never()).searchAvailable(anyString(), any());
     }
 
     @Test
@@ -252,8 +286,8 @@ public class ItemServiceImplTest {
 
     @Test
     public void testCreateWithoutRequest() {
-        when(userRepository.findById(owner.getId()))
-                .thenReturn(Optional.of(owner));
+        when(userIdCache.exists(owner.getId()))
+                .thenReturn(true);
 
         when(itemRepository.save(any()))
                 .thenReturn(item);
@@ -264,6 +298,8 @@ public class ItemServiceImplTest {
         assertEquals(item.getId(), saved.getId());
         assertEquals(item.getName(), saved.getName());
 
+        verify(userRepository).getReferenceById(owner.getId());
+        verify(userRepository, never()).findById(anyInt());
         verify(requestRepository, never()).findById(anyInt());
     }
 
@@ -276,8 +312,8 @@ public class ItemServiceImplTest {
                 LocalDateTime.now()
         );
 
-        when(userRepository.findById(owner.getId()))
-                .thenReturn(Optional.of(owner));
+        when(userIdCache.exists(owner.getId()))
+                .thenReturn(true);
         when(requestRepository.findById(any()))
                 .thenReturn(Optional.of(request));
         when(itemRepository.save(any()))
@@ -396,4 +432,11 @@ public class ItemServiceImplTest {
 
 
 
+
+    private void loadThroughCache() {
+        lenient().when(itemCache.get(anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ItemWithBookingResponse>>getArgument(1).get());
+        lenient().when(itemCache.getForOwner(anyInt(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ItemWithBookingResponse>>getArgument(1).get());
+    }
 }
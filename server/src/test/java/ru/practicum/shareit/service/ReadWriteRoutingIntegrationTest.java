@@ -0,0 +1,143 @@
+package ru.practicum.shareit.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.datasource.ReadWriteRoutingDataSource;
+import ru.practicum.shareit.item.dto.CreateItemRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequest;
+import ru.practicum.shareit.user.service.UserIdCache;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * The replica is a second, empty H2 database that never receives the writes, so a read
+ * that was routed to it does not see anything written through the primary.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.read-your-writes=PT1H",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "spring.datasource.hikari.connection-timeout=4000",
+        "shareit.datasource.replica.hikari.maximum-pool-size=3"
+})
+public class ReadWriteRoutingIntegrationTest {
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserIdCache userIdCache;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+
+    @DynamicPropertySource
+    static void replica(DynamicPropertyRegistry registry) {
+        String url = "jdbc:h2:mem:replica-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure()
+                .dataSource(url, "test", "test")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+
+        registry.add("shareit.datasource.replica.urls", () -> url);
+    }
+
+    @Test
+    public void testPoolsTakeHikariSettings() {
+        Map<Object, DataSource> pools = ((ReadWriteRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource)
+                .getTargetDataSource()).getResolvedDataSources();
+        HikariDataSource primary = (HikariDataSource) pools.get("primary");
+        HikariDataSource replica = (HikariDataSource) pools.get(0);
+
+        assertThat(primary.getPoolName(), equalTo("primary"));
+        assertThat(primary.getMaximumPoolSize(), equalTo(7));
+        assertThat(primary.getConnectionTimeout(), equalTo(4000L));
+        assertThat(replica.getPoolName(), equalTo("replica-0"));
+        assertThat(replica.getMaximumPoolSize(), equalTo(3));
+        assertThat(replica.getConnectionTimeout(), equalTo(4000L));
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToReplica() {
+        int ownerId = userService.create(new UserRequest("Owner", "owner@mail.ru")).getId();
+        int bookerId = userService.create(new UserRequest("Booker", "booker@mail.ru")).getId();
+        int otherId = userService.create(new UserRequest("Other", "other@mail.ru")).getId();
+        int itemId = itemService.create(new CreateItemRequest("Item", "Description", true, null), ownerId).getId();
+
+        bookingService.create(new BookingRequest(itemId, LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2)),
+                bookerId);
+
+        // the booker and the owner have just written, so they read their own bookings from the primary
+        assertThat(bookingService.getAllByBooker(bookerId, "ALL", 0, 10, null).size(), equalTo(1));
+        assertThat(bookingService.getAllByOwner(ownerId, "ALL", 0, 10, null).size(), equalTo(1));
+
+        // a booking written behind the services' back is not tracked, so its booker reads the stale replica
+        jdbcTemplate.update("insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, 'WAITING')",
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), itemId, otherId);
+
+        assertThat(bookingService.getAllByBooker(otherId, "ALL", 0, 10, null).size(), equalTo(0));
+        assertThat(bookingService.getAllByOwner(ownerId, "ALL", 0, 10, null).size(), equalTo(2));
+    }
+
+    @Test
+    public void testItemCacheLoadsFromPrimary() {
+        int ownerId = userService.create(new UserRequest("Owner", "cache-owner@mail.ru")).getId();
+        int otherId = userService.create(new UserRequest("Other", "cache-other@mail.ru")).getId();
+        int itemId = itemService.create(new CreateItemRequest("Item", "Description", true, null), ownerId).getId();
+
+        // the item is not on the replica, so a cache miss routed there would fail with NotFoundException
+        assertThat(itemService.getById(itemId, otherId).getId(), equalTo(itemId));
+    }
+
+    @Test
+    public void testCachePopulationReadsGoToPrimary() {
+        int userId = insertUser("direct@mail.ru");
+
+        // nobody wrote as this user through the services, so only the primary flag keeps the lookup off the replica
+        assertThat(userIdCache.exists(userId), equalTo(true));
+    }
+
+    @Test
+    public void testCachePopulationReadsLeaveReplicaTransaction() {
+        int userId = insertUser("direct-in-transaction@mail.ru");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Boolean exists = readOnly.execute(status -> {
+            // the transaction is bound to the replica from its first statement on
+            assertThat(jdbcTemplate.queryForObject("select count(*) from users where id = ?", Integer.class, userId), equalTo(0));
+            return userIdCache.exists(userId);
+        });
+
+        assertThat(exists, equalTo(true));
+    }
+
+    private int insertUser(String email) {
+        jdbcTemplate.update("insert into users (name, email) values ('Direct', ?)", email);
+        return jdbcTemplate.queryForObject("select id from users where email = ?", Integer.class, email);
+    }
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.service;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.CreateItemRequest;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponse;
 import ru.practicum.shareit.request.dto.ItemRequestWithItems;
@@ -12,6 +16,7 @@ import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -19,13 +24,17 @@ import java.util.List;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 public class RequestServiceImplIntegrationTest {
     @Autowired
     private RequestService requestService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     private UserRequest ur;
     private UserRequest ur2;
@@ -106,4 +115,35 @@ public class RequestServiceImplIntegrationTest {
         assertThat(saved.getCreated().format(formatter), equalTo(resp.getCreated().format(formatter)));
         assertThat(saved.getItems().size(), equalTo(0));
     }
+
+    @Test
+    public void testGetRequestsStatementCount() {
+        int urId = userService.create(ur).getId();
+        int urId2 = userService.create(ur2).getId();
+
+        for (int i = 0; i < 5; i++) {
+            int requestId = requestService.create(ird, urId).getId();
+            itemService.create(new CreateItemRequest("Item" + i, "Description", true, requestId), urId2);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<ItemRequestWithItems> owned = requestService.getRequestsOwner(urId);
+        assertThat(owned.size(), equalTo(5));
+        assertThat(owned.get(0).getItems().size(), equalTo(1));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+
+        statistics.clear();
+        List<ItemRequestWithItems> all = requestService.getRequests(0, 10, urId2);
+        assertThat(all.size(), equalTo(5));
+        assertThat(all.get(0).getItems().size(), equalTo(1));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+
+        // a full page must not add a count query: requests, items (users are known to the user id cache)
+        statistics.clear();
+        List<ItemRequestWithItems> page = requestService.getRequests(0, 2, urId2);
+        assertThat(page.size(), equalTo(2));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+    }
 }
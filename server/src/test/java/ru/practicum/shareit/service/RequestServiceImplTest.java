@@ -6,8 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestResponse;
@@ -17,6 +17,7 @@ import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +29,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
@@ -38,6 +40,8 @@ public class RequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserIdCache userIdCache;
+    @Mock
     private ItemRepository itemRepository;
     @InjectMocks
     private RequestServiceImpl requestService;
@@ -64,7 +68,7 @@ public class RequestServiceImplTest {
 
     @Test
     public void testCreateUserNotFound() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
 
         ItemRequestDto reqDto = new ItemRequestDto("Request");
 
@@ -76,7 +80,7 @@ public class RequestServiceImplTest {
 
     @Test
     public void testCreate() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(requestor));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
         when(requestRepository.save(any())).thenReturn(request);
 
         ItemRequestDto reqDto = new ItemRequestDto("Request");
@@ -87,20 +91,20 @@ public class RequestServiceImplTest {
 
     @Test
     public void testGetRequestOwnerUserNotFound() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
 
         assertThrows(NotFoundException.class,
                 () -> requestService.getRequestsOwner(requestor.getId()));
 
         verify(requestRepository, never()).findRequestByRequestorOrderByCreatedDesc(any());
-        verify(itemRepository, never()).findItemsByRequestId(anyInt());
+        verify(itemRepository, never()).findItemsByRequestIdIn(anyCollection());
     }
 
     @Test
     public void testGetRequestOwnerEmptyItems() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(requestor));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
         when(requestRepository.findRequestByRequestorOrderByCreatedDesc(any())).thenReturn(List.of(request));
-        when(itemRepository.findItemsByRequestId(anyInt())).thenReturn(List.of());
+        when(itemRepository.findItemsByRequestIdIn(anyCollection())).thenReturn(List.of());
 
         List<ItemRequestWithItems> requests = requestService.getRequestsOwner(requestor.getId());
 
@@ -110,18 +114,18 @@ public class RequestServiceImplTest {
 
     @Test
     public void testGetRequestNotFoundUser() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
 
         assertThrows(NotFoundException.class,
                 () -> requestService.getRequests(0, 10, 10));
 
         verify(requestRepository, never()).findRequestByRequestorNotOrderByCreatedDesc(any(), any());
-        verify(itemRepository, never()).findItemsByRequestId(anyInt());
+        verify(itemRepository, never()).findItemsByRequestIdIn(anyCollection());
     }
 
     @Test
     public void testGetRequestsFromSizeFailed() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(requestor));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class,
                 () -> requestService.getRequests(-1, 10, requestor.getId()));
@@ -131,14 +135,14 @@ public class RequestServiceImplTest {
                 () -> requestService.getRequests(-1, -10, requestor.getId()));
 
         verify(requestRepository, never()).findRequestByRequestorNotOrderByCreatedDesc(any(), any());
-        verify(itemRepository, never()).findItemsByRequestId(anyInt());
+        verify(itemRepository, never()).findItemsByRequestIdIn(anyCollection());
     }
 
     @Test
     public void testGetRequests() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(requestor));
-        when(requestRepository.findRequestByRequestorNotOrderByCreatedDesc(any(), any())).thenReturn(new PageImpl<>(List.of(request)));
-        when(itemRepository.findItemsByRequestId(anyInt())).thenReturn(List.of());
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(requestRepository.findRequestByRequestorNotOrderByCreatedDesc(any(), any())).thenReturn(List.of(request));
+        when(itemRepository.findItemsByRequestIdIn(anyCollection())).thenReturn(List.of());
 
         List<ItemRequestWithItems> requests = requestService.getRequests(0, 10, requestor.getId());
 
@@ -148,7 +152,7 @@ public class RequestServiceImplTest {
 
     @Test
     public void testGetRequestByIdUserNotFound() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(userIdCache.exists(anyInt())).thenReturn(false);
 
         assertThrows(NotFoundException.class,
                 () -> requestService.getRequestById(request.getId(), requestor.getId()));
@@ -159,7 +163,7 @@ public class RequestServiceImplTest {
 
     @Test
     public void testGetRequestByIdRequestNotFound() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(requestor));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
         when(requestRepository.findById(anyInt())).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
@@ -170,7 +174,7 @@ public class RequestServiceImplTest {
 
     @Test
     public void testGetRequestById() {
-        when(userRepository.findById(anyInt())).thenReturn(Optional.of(requestor));
+        when(userIdCache.exists(anyInt())).thenReturn(true);
         when(requestRepository.findById(anyInt())).thenReturn(Optional.of(request));
         when(itemRepository.findItemsByRequestId(anyInt())).thenReturn(List.of());
 
@@ -179,4 +183,24 @@ public class RequestServiceImplTest {
         assertThat(req, notNullValue());
         assertThat(req.getItems().size(), equalTo(0));
     }
+
+    @Test
+    public void testGetRequestOwnerGroupsItems() {
+        Request request2 = new Request(2, "Request2", requestor, LocalDateTime.now());
+        Item item = new Item(1, "Item", "Description", true, requestor, request2);
+
+        when(userIdCache.exists(anyInt())).thenReturn(true);
+        when(requestRepository.findRequestByRequestorOrderByCreatedDesc(any())).thenReturn(List.of(request, request2));
+        when(itemRepository.findItemsByRequestIdIn(anyCollection())).thenReturn(List.of(item));
+
+        List<ItemRequestWithItems> requests = requestService.getRequestsOwner(requestor.getId());
+
+        assertEquals(2, requests.size());
+        assertEquals(0, requests.get(0).getItems().size());
+        assertEquals(1, requests.get(1).getItems().size());
+        assertEquals(item.getId(), requests.get(1).getItems().get(0).getId());
+
+        verify(itemRepository).findItemsByRequestIdIn(anyCollection());
+        verify(itemRepository, never()).findItemsByRequestId(anyInt());
+    }
 }
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.CreateItemRequest;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserRequest;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(properties = {
+        "shareit.second-level-cache.enabled=true",
+        "shareit.hibernate-statistics.enabled=true"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+public class SecondLevelCacheIntegrationTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testEntitiesAreReadFromCache() {
+        User user = userService.create(new UserRequest("User", "mail@mail.ru"));
+        int itemId = itemService.create(new CreateItemRequest("Item", "Description", true, null), user.getId()).getId();
+
+        userService.getById(user.getId());
+        itemRepository.findById(itemId);
+
+        // the first reads put the entities into the cache, later ones in other sessions do not hit the database
+        statistics.clear();
+        assertThat(userService.getById(user.getId()).getName(), equalTo("User"));
+        assertThat(itemRepository.findById(itemId).orElseThrow().getName(), equalTo("Item"));
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), equalTo(1L));
+        assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), equalTo(1L));
+    }
+
+    @Test
+    public void testCommentQueryIsCachedUntilCommentsChange() {
+        User user = userService.create(new UserRequest("User", "mail@mail.ru"));
+        int itemId = itemService.create(new CreateItemRequest("Item", "Description", true, null), user.getId()).getId();
+        saveComment(itemId, user, "first");
+
+        statistics.clear();
+        assertThat(commentRepository.findCommentsByItemId(itemId).size(), equalTo(1));
+        assertThat(commentRepository.findCommentsByItemId(itemId).size(), equalTo(1));
+        assertThat(statistics.getQueryCacheHitCount(), equalTo(1L));
+
+        saveComment(itemId, user, "second");
+
+        statistics.clear();
+        assertThat(commentRepository.findCommentsByItemId(itemId).size(), equalTo(2));
+        assertThat(statistics.getQueryCacheHitCount(), equalTo(0L));
+    }
+
+    @Test
+    public void testUserDeleteEvictsCascadedItems() {
+        User user = userService.create(new UserRequest("User", "mail@mail.ru"));
+        int itemId = itemService.create(new CreateItemRequest("Item", "Description", true, null), user.getId()).getId();
+        itemRepository.findById(itemId);
+
+        userService.delete(user.getId());
+
+        assertThat(itemRepository.findById(itemId).isPresent(), equalTo(false));
+    }
+
+    private void saveComment(int itemId, User author, String text) {
+        Comment comment = new Comment();
+        comment.setItem(itemRepository.getReferenceById(itemId));
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(LocalDateTime.now());
+        commentRepository.save(comment);
+    }
+}
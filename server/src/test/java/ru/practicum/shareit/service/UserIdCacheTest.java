@@ -0,0 +1,74 @@
+package ru.practicum.shareit.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.datasource.ReadYourWrites;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserIdCache;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserIdCacheTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReadYourWrites readYourWrites;
+    private UserIdCache userIdCache;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), transactionManager);
+        userIdCache = new UserIdCache(userRepository, readYourWrites);
+    }
+
+    @Test
+    public void testExistsReadsThrough() {
+        when(userRepository.existsById(1)).thenReturn(true);
+
+        assertTrue(userIdCache.exists(1));
+        assertTrue(userIdCache.exists(1));
+
+        verify(userRepository, times(1)).existsById(1);
+    }
+
+    @Test
+    public void testMissingUserIsNotRemembered() {
+        when(userRepository.existsById(1)).thenReturn(false);
+
+        assertFalse(userIdCache.exists(1));
+        assertFalse(userIdCache.exists(1));
+
+        verify(userRepository, times(2)).existsById(1);
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        userIdCache.add(1_000_000);
+        assertTrue(userIdCache.exists(1_000_000));
+        verify(userRepository, never()).existsById(anyInt());
+
+        userIdCache.remove(1_000_000);
+        assertFalse(userIdCache.exists(1_000_000));
+        verify(userRepository).existsById(1_000_000);
+    }
+
+    @Test
+    public void testInvalidIds() {
+        assertFalse(userIdCache.exists(null));
+        assertFalse(userIdCache.exists(-1));
+
+        verify(userRepository, never()).existsById(anyInt());
+    }
+}
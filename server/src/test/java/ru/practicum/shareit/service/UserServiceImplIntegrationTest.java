@@ -4,7 +4,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.exception.exceptions.DuplicateEmailException;
 import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -19,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 public class UserServiceImplIntegrationTest {
     @Autowired
     private UserService userService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
 
     @Test
     @DirtiesContext
@@ -50,10 +54,29 @@ public class UserServiceImplIntegrationTest {
         UserRequest ur2 = new UserRequest("name2", "email1@box.ru");
         userService.create(ur1);
 
-        assertThrows(DataIntegrityViolationException.class,
+        assertThrows(DuplicateEmailException.class,
                 () -> userService.create(ur2));
     }
 
+    @Test
+    @DirtiesContext
+    public void testCreateDuplicateMissedByEmailIndex() {
+        // written by a concurrent registration after the index was built, so only the unique constraint sees it
+        jdbcTemplate.update("insert into users (name, email) values ('name1', 'email1@box.ru')");
+
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.create(new UserRequest("name2", "email1@box.ru")));
+    }
+
+    @Test
+    @DirtiesContext
+    public void testCreateTooLongNameIsNotDuplicateEmail() {
+        // H2 puts the failing insert, email column included, into the message of every violation on users
+        UserRequest ur = new UserRequest("n".repeat(51), "email1@box.ru");
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.create(ur));
+    }
+
     @Test
     @DirtiesContext
     public void testUpdate() {
@@ -78,7 +101,7 @@ public class UserServiceImplIntegrationTest {
 
         ur2.setEmail("email1@box.ru");
 
-        assertThrows(DataIntegrityViolationException.class,
+        assertThrows(DuplicateEmailException.class,
                 () -> userService.update(ur2, id));
     }
 
@@ -1,18 +1,29 @@
 package ru.practicum.shareit.service;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.service.BookingTimeline;
+import ru.practicum.shareit.exception.exceptions.DuplicateEmailException;
 import ru.practicum.shareit.exception.exceptions.EmptyEmailExeption;
 import ru.practicum.shareit.exception.exceptions.NotFoundException;
+import ru.practicum.shareit.item.service.ItemCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.user.dto.UserRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.EmailIndex;
+import ru.practicum.shareit.user.service.UserIdCache;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,10 +36,23 @@ public class UserServiceImplTest {
     private UserService userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingTimeline bookingTimeline;
+    @Mock
+    private UserIdCache userIdCache;
+    @Mock
+    private EmailIndex emailIndex;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemCache itemCache;
 
     @BeforeEach
     public void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, bookingTimeline, itemSearchIndex, itemCache, userIdCache, emailIndex,
+                entityManagerFactory);
     }
 
     @Test
@@ -79,7 +103,7 @@ public class UserServiceImplTest {
 
         assertThrows(EmptyEmailExeption.class,
                 () -> userService.create(ur));
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -87,11 +111,42 @@ public class UserServiceImplTest {
         UserRequest ur = new UserRequest("name", "email@box.ru");
         User user = new User(1, "name", "email@box.ru");
 
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenReturn(user);
+
+        assertSame(user, userService.create(ur));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsUserByEmail(any());
+        verify(emailIndex).add("email@box.ru");
+    }
+
+    @Test
+    public void testCreateDuplicateEmail() {
+        UserRequest ur = new UserRequest("name", "email@box.ru");
+
+        when(emailIndex.mightContain("email@box.ru"))
+                .thenReturn(true);
+        when(userRepository.existsUserByEmail("email@box.ru"))
+                .thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.create(ur));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    public void testCreateEmailFalsePositive() {
+        UserRequest ur = new UserRequest("name", "email@box.ru");
+        User user = new User(1, "name", "email@box.ru");
+
+        when(emailIndex.mightContain("email@box.ru"))
+                .thenReturn(true);
+        when(userRepository.existsUserByEmail("email@box.ru"))
+                .thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenReturn(user);
 
         assertSame(user, userService.create(ur));
-        verify(userRepository).save(any(User.class));
     }
 
     @Test
@@ -101,7 +156,7 @@ public class UserServiceImplTest {
 
         assertThrows(NotFoundException.class,
                 () -> userService.getById(1));
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -112,7 +167,7 @@ public class UserServiceImplTest {
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
         user.setName("nameUpd");
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenReturn(user);
 
         assertSame(user, userService.update(ur, 1));
@@ -126,7 +181,7 @@ public class UserServiceImplTest {
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
         user.setEmail("emailUpd@box.ru");
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenReturn(user);
 
         assertSame(user, userService.update(ur, 1));
@@ -141,9 +196,45 @@ public class UserServiceImplTest {
                 .thenReturn(Optional.of(user));
         user.setName("nameUpd");
         user.setEmail("emailUpd@box.ru");
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenReturn(user);
 
         assertSame(user, userService.update(ur, 1));
     }
+
+    @Test
+    public void testDeleteEvictsCascadedState() {
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+
+        userService.delete(1);
+
+        verify(userRepository).deleteById(1);
+        verify(userIdCache).remove(1);
+        verify(itemSearchIndex).deleteByOwner(1);
+        verify(itemCache).evictAll();
+        verify(bookingTimeline).evictAll();
+    }
+
+    @Test
+    public void testCreateConcurrentDuplicateEmail() {
+        when(emailIndex.mightContain("mail@mail.ru")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", new SQLException("ERROR: duplicate key value violates unique constraint \"users_email_key\"", "23505"), "users_email_key")));
+
+        assertThrows(DuplicateEmailException.class,
+                () -> userService.create(new UserRequest("User", "mail@mail.ru")));
+        verify(userIdCache, never()).add(anyInt());
+    }
+
+    @Test
+    public void testCreateOtherIntegrityViolation() {
+        when(emailIndex.mightContain("mail@mail.ru")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", new SQLException("ERROR: null value in column \"email\" violates not-null constraint", "23502"), null)));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userService.create(new UserRequest("User", "mail@mail.ru")));
+    }
 }